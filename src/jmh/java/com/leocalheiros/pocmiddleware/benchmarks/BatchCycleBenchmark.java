@@ -0,0 +1,135 @@
+package com.leocalheiros.pocmiddleware.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leocalheiros.pocmiddleware.application.dtos.requests.UpdateProductPriceRequest;
+import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
+import com.leocalheiros.pocmiddleware.application.handlers.base.BaseBatchHandler;
+import com.leocalheiros.pocmiddleware.application.handlers.base.BatchTrigger;
+import com.leocalheiros.pocmiddleware.application.handlers.base.HandlerExecutors;
+import com.leocalheiros.pocmiddleware.application.handlers.base.SellerWeights;
+import com.leocalheiros.pocmiddleware.application.handlers.base.InboundMessage;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSource;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.enums.Status;
+import com.leocalheiros.pocmiddleware.domain.models.Integration;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One full {@code onTimerComplete} cycle over an in-memory backlog: claiming, payload conversion, coalescing,
+ * chunking and outcome bookkeeping. The hub answers instantly, so the numbers are the middleware's own cost.
+ * Payloads are held as maps, the shape they have when read back from Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchCycleBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int pendingRows;
+
+    @Param({"10", "1000"})
+    private int sellers;
+
+    private InMemoryBacklog backlog;
+    private BenchmarkBatchHandler handler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backlog = new InMemoryBacklog();
+        for (int i = 0; i < pendingRows; i++) {
+            var integration = new Integration();
+            integration.setType(IntegrationType.PRODUCTPRICEUPDATE);
+            integration.setStatus(Status.PENDING);
+            integration.setDocumentNumber(String.format("%014d", i % sellers));
+            integration.setPayloadSize(64);
+
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("sku", "SKU-" + i);
+            payload.put("precoDe", "199.90");
+            payload.put("precoPor", "149.90");
+            integration.setObject(payload);
+
+            backlog.add(integration);
+        }
+
+        var settings = new IntegrationParametersSettings();
+        settings.setQueueName("benchmark");
+        settings.setType(IntegrationType.PRODUCTPRICEUPDATE);
+        settings.setTimerPeriod(60000);
+        settings.setBatchLimit(100);
+        settings.setMaxBatchesPerTick(Integer.MAX_VALUE);
+        settings.setCoalesce(true);
+
+        handler = new BenchmarkBatchHandler(settings, backlog.repository(), new ObjectMapper(),
+                new IntegrationMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Setup(Level.Invocation)
+    public void rewind() {
+        backlog.rewind();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        handler.stop();
+    }
+
+    @Benchmark
+    public BatchTrigger.Outcome cycle() {
+        return handler.onTimerComplete();
+    }
+
+    static final class BenchmarkBatchHandler
+            extends BaseBatchHandler<UpdateProductPriceRequest> {
+        private static final DefaultResponse ACCEPTED = DefaultResponse.builder().id(1).build();
+        private static final HandlerExecutors EXECUTORS = new HandlerExecutors();
+
+        BenchmarkBatchHandler(IntegrationParametersSettings settings,
+                              BaseMongoRepository repository,
+                              ObjectMapper objectMapper,
+                              IntegrationMetrics metrics) {
+            super(x -> new MessageSource() {
+                @Override
+                public void start(Consumer<InboundMessage> handler) {
+                }
+
+                @Override
+                public void close() {
+                }
+            }, settings, repository, objectMapper, metrics, EXECUTORS, SellerWeights.EQUAL);
+        }
+
+        @Override
+        public DefaultResponse executeIntegration(List<UpdateProductPriceRequest> list, String documentNumber) {
+            return ACCEPTED;
+        }
+
+        @Override
+        protected String getCoalescingField() {
+            return "sku";
+        }
+
+        @Override
+        protected Class<UpdateProductPriceRequest> getGenericClass() {
+            return UpdateProductPriceRequest.class;
+        }
+    }
+}
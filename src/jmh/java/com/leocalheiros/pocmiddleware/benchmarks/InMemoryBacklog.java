@@ -0,0 +1,56 @@
+package com.leocalheiros.pocmiddleware.benchmarks;
+
+import com.leocalheiros.pocmiddleware.domain.models.Integration;
+import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pending rows grouped per seller, served through the {@link BaseMongoRepository} methods the batch cycle uses.
+ * Claims hand out consecutive slices of each seller's rows; {@link #rewind()} makes every row claimable again.
+ */
+final class InMemoryBacklog {
+    private final Map<String, List<Integration>> rowsBySeller = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    void add(Integration integration) {
+        rowsBySeller.computeIfAbsent(integration.getDocumentNumber(), k -> new ArrayList<>()).add(integration);
+    }
+
+    void rewind() {
+        rowsBySeller.keySet().forEach(documentNumber -> cursors.put(documentNumber, new AtomicInteger()));
+    }
+
+    BaseMongoRepository repository() {
+        return (BaseMongoRepository) Proxy.newProxyInstance(
+                BaseMongoRepository.class.getClassLoader(),
+                new Class<?>[]{BaseMongoRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findClaimableDocumentNumbers" -> claimableSellers();
+                    case "claimBatch" -> claim((String) args[1], (int) args[4]);
+                    case "updateResults", "insertReceived" -> null;
+                    case "countBacklog" -> Map.of();
+                    case "supersedePending" -> 0L;
+                    case "toString" -> "InMemoryBacklog";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private List<String> claimableSellers() {
+        return rowsBySeller.keySet().stream()
+                .filter(documentNumber -> cursors.get(documentNumber).get() < rowsBySeller.get(documentNumber).size())
+                .toList();
+    }
+
+    private List<Integration> claim(String documentNumber, int limit) {
+        var rows = rowsBySeller.get(documentNumber);
+        int from = Math.min(cursors.get(documentNumber).getAndAdd(limit), rows.size());
+        return rows.subList(from, Math.min(from + limit, rows.size()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.leocalheiros.pocmiddleware.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leocalheiros.pocmiddleware.application.dtos.requests.UpdateProductPriceRequest;
+import com.leocalheiros.pocmiddleware.application.dtos.responses.UpdateProductPriceResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON cost on the ingestion path (decoding a queue message in {@code messageHandler}) and on the dispatch path
+ * (encoding the {@link UpdateProductPriceResponse} body sent to the hub).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageCodecBenchmark {
+    private static final byte[] MESSAGE = """
+            {"sku":"SKU-000123","precoDe":"199.90","precoPor":"149.90"}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"100", "1000"})
+    private int batchItems;
+
+    private ObjectMapper objectMapper;
+    private UpdateProductPriceRequest request;
+    private UpdateProductPriceResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        request = new UpdateProductPriceRequest("SKU-000123", "199.90", "149.90");
+
+        List<UpdateProductPriceRequest> items = new ArrayList<>(batchItems);
+        for (int i = 0; i < batchItems; i++) {
+            items.add(new UpdateProductPriceRequest("SKU-" + i, "199.90", "149.90"));
+        }
+        response = new UpdateProductPriceResponse(items);
+    }
+
+    @Benchmark
+    public UpdateProductPriceRequest decodeMessage() throws IOException {
+        return objectMapper.readValue(MESSAGE, UpdateProductPriceRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeMessage() throws IOException {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] encodeBatchBody() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
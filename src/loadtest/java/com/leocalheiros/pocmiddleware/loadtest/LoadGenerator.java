@@ -0,0 +1,145 @@
+package com.leocalheiros.pocmiddleware.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leocalheiros.pocmiddleware.application.dtos.requests.UpdateProductPriceRequest;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.SellerKeys;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.SellerSettings;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes price updates at a fixed rate to the local queue, waits for the backlog to drain and reports
+ * throughput, end-to-end lag (publish to accepted by the stub hub) and hub calls per message.
+ */
+@Component
+@Profile("loadtest")
+public class LoadGenerator {
+    private static final IntegrationType TYPE = IntegrationType.PRODUCTPRICEUPDATE;
+
+    private final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadTestSettings settings;
+    private final LocalMessageSourceFactory messageSourceFactory;
+    private final StubHub stubHub;
+    private final UappiSettings uappiSettings;
+    private final BaseMongoRepository baseMongoRepository;
+    private final ObjectMapper objectMapper;
+
+    public LoadGenerator(LoadTestSettings settings,
+                         LocalMessageSourceFactory messageSourceFactory,
+                         StubHub stubHub,
+                         UappiSettings uappiSettings,
+                         BaseMongoRepository baseMongoRepository,
+                         ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.messageSourceFactory = messageSourceFactory;
+        this.stubHub = stubHub;
+        this.uappiSettings = uappiSettings;
+        this.baseMongoRepository = baseMongoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void run() throws JsonProcessingException, InterruptedException {
+        var source = messageSourceFactory.source(TYPE);
+        String[] sellers = registerSellers();
+        int total = settings.getRate() * settings.getDuration();
+        long[] publishedAt = new long[total];
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+
+        logger.info("Publishing {} messages at {} msg/s across {} sellers", total, settings.getRate(), sellers.length);
+        long started = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long due = started + i * interval;
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            var body = objectMapper.writeValueAsBytes(new UpdateProductPriceRequest(sku(i), "199.90", "149.90"));
+            publishedAt[i] = System.nanoTime();
+            source.publish(sellers[i % sellers.length], body);
+        }
+        long publishEnded = System.nanoTime();
+
+        long drainDeadline = publishEnded + TimeUnit.SECONDS.toNanos(settings.getDrainTimeout());
+        while (System.nanoTime() < drainDeadline && !drained(source, total)) {
+            Thread.sleep(500);
+        }
+
+        report(publishedAt, started, publishEnded, source);
+    }
+
+    private boolean drained(LocalMessageSourceFactory.LocalMessageSource source, int total) {
+        return source.getCompleted() >= total && baseMongoRepository.countBacklog(TYPE).isEmpty();
+    }
+
+    private void report(long[] publishedAt, long started, long publishEnded, LocalMessageSourceFactory.LocalMessageSource source) {
+        var acceptedAt = stubHub.getAcceptedAt();
+        long[] lags = new long[publishedAt.length];
+        int accepted = 0;
+        long lastAccepted = started;
+        for (int i = 0; i < publishedAt.length; i++) {
+            Long at = acceptedAt.get(sku(i));
+            if (at == null) continue;
+            lags[accepted++] = at - publishedAt[i];
+            lastAccepted = Math.max(lastAccepted, at);
+        }
+        Arrays.sort(lags, 0, accepted);
+
+        double publishSeconds = (publishEnded - started) / 1e9;
+        double deliverySeconds = Math.max(lastAccepted - started, 1) / 1e9;
+
+        logger.info("""
+
+                        Load test report
+                          published:            {} ({} msg/s offered)
+                          settled by queue:     {} completed, {} abandoned, {} dead-lettered
+                          accepted by hub:      {} ({} missing)
+                          throughput:           {} msg/s
+                          end-to-end lag:       p50 {} ms, p99 {} ms, max {} ms
+                          hub price calls:      {} ({} per message)
+                          hub token calls:      {}
+                          hub responses:        {}""",
+                publishedAt.length, String.format("%.0f", publishedAt.length / publishSeconds),
+                source.getCompleted(), source.getAbandoned(), source.getDeadLettered(),
+                accepted, publishedAt.length - accepted,
+                String.format("%.0f", accepted / deliverySeconds),
+                percentile(lags, accepted, 0.50), percentile(lags, accepted, 0.99), percentile(lags, accepted, 1.0),
+                stubHub.getPriceBatchCalls(), String.format("%.4f", (double) stubHub.getPriceBatchCalls() / publishedAt.length),
+                stubHub.getTokenCalls(),
+                stubHub.getResponsesByStatus());
+    }
+
+    private String[] registerSellers() {
+        String[] sellers = new String[settings.getSellers()];
+        for (int i = 0; i < sellers.length; i++) {
+            sellers[i] = String.format("%014d", i);
+
+            var keys = new SellerKeys();
+            keys.setApiKey("loadtest");
+            keys.setSecretKey("loadtest");
+            var sellerSettings = new SellerSettings();
+            sellerSettings.setKeys(keys);
+            uappiSettings.getHub().getSellers().put(sellers[i], sellerSettings);
+        }
+        return sellers;
+    }
+
+    private static String sku(int sequence) {
+        return "LT-" + sequence;
+    }
+
+    private static long percentile(long[] sorted, int count, double quantile) {
+        if (count == 0) return 0;
+        int index = (int) Math.ceil(quantile * count) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+    }
+}
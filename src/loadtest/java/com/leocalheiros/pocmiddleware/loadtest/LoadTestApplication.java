@@ -0,0 +1,25 @@
+package com.leocalheiros.pocmiddleware.loadtest;
+
+import com.leocalheiros.pocmiddleware.PocmiddlewareApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Runs the middleware against the stub hub, the local queue and an embedded MongoDB, drives it with
+ * {@link LoadGenerator} and exits once the report is written. Settings are under {@code load-test} in
+ * {@code application-loadtest.yml} and can be overridden on the command line, e.g. {@code --load-test.rate=2000}.
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        var context = new SpringApplicationBuilder(PocmiddlewareApplication.class)
+                .profiles("loadtest")
+                .run(args);
+
+        try {
+            context.getBean(LoadGenerator.class).run();
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.leocalheiros.pocmiddleware.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@Profile("loadtest")
+@ConfigurationProperties(prefix = "load-test")
+public class LoadTestSettings {
+    private int rate = 500;
+    private int duration = 60;
+    private int sellers = 10;
+    private int drainTimeout = 120;
+    private StubHubSettings hub = new StubHubSettings();
+
+    @Getter
+    @Setter
+    public static class StubHubSettings {
+        private int port = 18080;
+        private int latency = 50;
+        private int latencyJitter = 25;
+        private double errorRate = 0.01;
+        private double throttleRate = 0.01;
+        private int retryAfter = 1;
+    }
+}
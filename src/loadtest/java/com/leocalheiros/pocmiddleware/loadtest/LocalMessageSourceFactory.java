@@ -0,0 +1,152 @@
+package com.leocalheiros.pocmiddleware.loadtest;
+
+import com.leocalheiros.pocmiddleware.application.handlers.base.InboundMessage;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSource;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSourceFactory;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-in for the Service Bus queues. Messages are handed to the handler on virtual threads, at most
+ * {@code maxConcurrentCalls} at a time, and abandoned messages are redelivered after a short delay.
+ */
+@Component
+@Profile("loadtest")
+public class LocalMessageSourceFactory implements MessageSourceFactory {
+    private static final long REDELIVERY_DELAY_MILLIS = 1000;
+
+    private final Map<IntegrationType, LocalMessageSource> sources = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService redeliveryScheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @Override
+    public MessageSource create(IntegrationParametersSettings settings) {
+        return sources.computeIfAbsent(settings.getType(), type -> new LocalMessageSource(settings.getMaxConcurrentCalls()));
+    }
+
+    public LocalMessageSource source(IntegrationType type) {
+        var source = sources.get(type);
+        if (source == null) {
+            throw new IllegalStateException("No handler consumes " + type);
+        }
+        return source;
+    }
+
+    public class LocalMessageSource implements MessageSource {
+        private final Semaphore concurrentCalls;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong abandoned = new AtomicLong();
+        private final AtomicLong deadLettered = new AtomicLong();
+        private volatile Consumer<InboundMessage> handler;
+
+        private LocalMessageSource(int maxConcurrentCalls) {
+            this.concurrentCalls = new Semaphore(Math.max(1, maxConcurrentCalls));
+        }
+
+        @Override
+        public void start(Consumer<InboundMessage> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void close() {
+            handler = null;
+        }
+
+        public void publish(String to, byte[] body) {
+            deliver(new LocalMessage(UUID.randomUUID().toString(), to, body));
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getAbandoned() {
+            return abandoned.get();
+        }
+
+        public long getDeadLettered() {
+            return deadLettered.get();
+        }
+
+        private void deliver(LocalMessage message) {
+            deliveryExecutor.execute(() -> {
+                var current = handler;
+                if (current == null) return;
+
+                concurrentCalls.acquireUninterruptibly();
+                try {
+                    current.accept(message);
+                } finally {
+                    concurrentCalls.release();
+                }
+            });
+        }
+
+        private final class LocalMessage implements InboundMessage {
+            private final String messageId;
+            private final String to;
+            private final byte[] body;
+            private final AtomicBoolean settled = new AtomicBoolean();
+
+            private LocalMessage(String messageId, String to, byte[] body) {
+                this.messageId = messageId;
+                this.to = to;
+                this.body = body;
+            }
+
+            @Override
+            public String getMessageId() {
+                return messageId;
+            }
+
+            @Override
+            public String getTo() {
+                return to;
+            }
+
+            @Override
+            public byte[] getBody() {
+                return body;
+            }
+
+            @Override
+            public void complete() {
+                if (settled.compareAndSet(false, true)) {
+                    completed.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void abandon() {
+                if (settled.compareAndSet(false, true)) {
+                    abandoned.incrementAndGet();
+                    redeliveryScheduler.schedule(
+                            () -> deliver(new LocalMessage(messageId, to, body)),
+                            REDELIVERY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            }
+
+            @Override
+            public void deadLetter(String reason, String description) {
+                if (settled.compareAndSet(false, true)) {
+                    deadLettered.incrementAndGet();
+                }
+            }
+        }
+    }
+}
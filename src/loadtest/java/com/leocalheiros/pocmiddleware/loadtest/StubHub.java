@@ -0,0 +1,130 @@
+package com.leocalheiros.pocmiddleware.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local replacement for the Uappi hub serving {@code /auth}, {@code /ping} and {@code /products/price-batch}.
+ * Price batches are answered after the configured latency and fail or get throttled at the configured rates;
+ * the time each SKU was accepted is recorded for the lag report.
+ */
+@Component
+@Profile("loadtest")
+public class StubHub {
+    private final LoadTestSettings.StubHubSettings settings;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Long> acceptedAt = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> responsesByStatus = new ConcurrentHashMap<>();
+    private final AtomicLong priceBatchCalls = new AtomicLong();
+    private final AtomicLong tokenCalls = new AtomicLong();
+    private final AtomicLong batchIds = new AtomicLong();
+    private HttpServer server;
+
+    public StubHub(LoadTestSettings loadTestSettings, ObjectMapper objectMapper) {
+        this.settings = loadTestSettings.getHub();
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", settings.getPort()), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/auth", exchange -> {
+            tokenCalls.incrementAndGet();
+            respond(exchange, 200, "{\"token\":\"loadtest-" + tokenCalls.get() + "\",\"expires_in\":3600}");
+        });
+        server.createContext("/ping", exchange -> respond(exchange, 200, ""));
+        server.createContext("/products/price-batch", this::priceBatch);
+        server.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+    }
+
+    public Map<String, Long> getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public long getPriceBatchCalls() {
+        return priceBatchCalls.get();
+    }
+
+    public long getTokenCalls() {
+        return tokenCalls.get();
+    }
+
+    public Map<Integer, AtomicLong> getResponsesByStatus() {
+        return responsesByStatus;
+    }
+
+    private void priceBatch(HttpExchange exchange) throws IOException {
+        priceBatchCalls.incrementAndGet();
+        JsonNode body;
+        try (InputStream input = requestBody(exchange)) {
+            body = objectMapper.readTree(input);
+        }
+
+        var random = ThreadLocalRandom.current();
+        sleep(settings.getLatency() + (settings.getLatencyJitter() > 0 ? random.nextInt(settings.getLatencyJitter()) : 0));
+
+        double outcome = random.nextDouble();
+        if (outcome < settings.getThrottleRate()) {
+            exchange.getResponseHeaders().add("Retry-After", String.valueOf(settings.getRetryAfter()));
+            respond(exchange, 429, "{\"error\":\"Too Many Requests\"}");
+            return;
+        }
+        if (outcome < settings.getThrottleRate() + settings.getErrorRate()) {
+            respond(exchange, 500, "{\"error\":\"Internal Server Error\"}");
+            return;
+        }
+
+        long now = System.nanoTime();
+        body.path("precos").forEach(item -> acceptedAt.putIfAbsent(item.path("sku").asText(), now));
+        respond(exchange, 200, "{\"id\":" + batchIds.incrementAndGet() + "}");
+    }
+
+    private static InputStream requestBody(HttpExchange exchange) throws IOException {
+        var encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        return "gzip".equalsIgnoreCase(encoding)
+                ? new GZIPInputStream(exchange.getRequestBody())
+                : exchange.getRequestBody();
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        responsesByStatus.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
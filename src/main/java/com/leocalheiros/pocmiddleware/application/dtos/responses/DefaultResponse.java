@@ -1,5 +1,6 @@
 package com.leocalheiros.pocmiddleware.application.dtos.responses;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.springframework.http.HttpStatusCode;
 
@@ -15,4 +16,14 @@ public class DefaultResponse {
     private String error;
     private List<String> details;
     public int statusCode;
+
+    @JsonIgnore
+    private long retryAfter;
+
+    /**
+     * Set when the call never reached the hub because the seller's circuit was open, its bulkhead was full or
+     * its rate limit was exhausted. Such a refusal says nothing about the rows, so it is not counted as an attempt.
+     */
+    @JsonIgnore
+    private boolean rejectedLocally;
 }
@@ -0,0 +1,42 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-seller batch size that follows the hub's response times: a full batch answered well within the target
+ * latency lets the next one grow by a quarter, while a slow or timed-out batch halves it. The size always
+ * stays between the configured minimum and maximum, and starts at the maximum.
+ */
+public class AdaptiveBatchSizer {
+    private final int minSize;
+    private final int maxSize;
+    private final Duration targetLatency;
+    private final Map<String, AtomicInteger> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveBatchSizer(int minSize, int maxSize, Duration targetLatency) {
+        this.minSize = Math.max(1, Math.min(minSize, maxSize));
+        this.maxSize = maxSize;
+        this.targetLatency = targetLatency;
+    }
+
+    public int limit(String documentNumber) {
+        return limits.computeIfAbsent(documentNumber, k -> new AtomicInteger(maxSize)).get();
+    }
+
+    /**
+     * Records how long a batch of {@code size} items took. {@code timedOut} marks calls that failed because the
+     * hub did not answer in time, which always shrinks the batch.
+     */
+    public void record(String documentNumber, int size, Duration latency, boolean timedOut) {
+        var limit = limits.computeIfAbsent(documentNumber, k -> new AtomicInteger(maxSize));
+
+        if (timedOut || latency.compareTo(targetLatency) > 0) {
+            limit.updateAndGet(current -> Math.max(minSize, current / 2));
+        } else if (latency.compareTo(targetLatency.dividedBy(2)) <= 0) {
+            limit.updateAndGet(current -> size < current ? current : Math.min(maxSize, current + Math.max(1, current / 4)));
+        }
+    }
+}
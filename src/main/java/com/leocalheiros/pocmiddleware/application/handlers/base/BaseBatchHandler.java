@@ -1,99 +1,691 @@
 package com.leocalheiros.pocmiddleware.application.handlers.base;
 
-import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
 import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
 import com.leocalheiros.pocmiddleware.domain.enums.Status;
 import com.leocalheiros.pocmiddleware.domain.models.Integration;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
 import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class BaseBatchHandler<T> extends BaseHandler {
+    private static final String UNDECODABLE_REASON = "UndecodablePayload";
+    private static final String SUPERSEDED_ERROR = "Superseded by a newer update";
+
     private final Logger logger = LoggerFactory.getLogger(BaseBatchHandler.class);
 
     private final BaseMongoRepository baseMongoRepository;
     private final ObjectMapper objectMapper;
+    private final IntegrationMetrics metrics;
     private final IntegrationType integrationType;
     private final int batchSize;
+    private final int maxBatchBytes;
+    private final AdaptiveBatchSizer batchSizer;
+    private final int maxBatchesPerTick;
+    private final int maxConcurrentBatchesPerSeller;
+    private final Duration leaseDuration;
+    private final String leaseOwner;
+    private final FairDispatchPermits dispatchPermits;
+    private final ExecutorService dispatchExecutor;
+    private final ScheduledExecutorService bufferScheduler;
+    private final int ingestBatchSize;
+    private final Duration ingestLinger;
+    private final DispatchScheduler.Lane lane;
+    private final Duration timerPeriod;
+    private final Duration maxIdlePeriod;
+    // Both capture this handler, so they are created after construction rather than in the constructor
+    private volatile MessageBuffer<ReceivedIntegration> ingestionBuffer;
+    private volatile BatchTrigger batchTrigger;
+    private final AtomicInteger pendingSinceCycle = new AtomicInteger();
+    private final boolean directDispatch;
+    private final Duration directLinger;
+    private final int directMaxQueuedFlushes;
+    private final boolean coalesce;
+    private final int maxAttempts;
+    private final long retryBaseDelay;
+    private final long retryMaxDelay;
+    private final Duration doneRetention;
+    private final Duration errorRetention;
+    private final Map<String, MessageBuffer<ReceivedIntegration>> directBuffers = new ConcurrentHashMap<>();
 
     protected BaseBatchHandler(
-            String connectionString,
-            String queueName,
+            MessageSourceFactory messageSourceFactory,
+            IntegrationParametersSettings settings,
             BaseMongoRepository baseMongoRepository,
             ObjectMapper objectMapper,
-            IntegrationType integrationType,
-            int batchSize) {
-        super(connectionString, queueName);
+            IntegrationMetrics metrics,
+            HandlerExecutors executors,
+            SellerWeights sellerWeights) {
+        super(messageSourceFactory, settings);
         this.baseMongoRepository = baseMongoRepository;
         this.objectMapper = objectMapper;
-        this.integrationType = integrationType;
-        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.dispatchExecutor = executors.getDispatchExecutor();
+        this.bufferScheduler = executors.getTimer();
+        this.integrationType = settings.getType();
+        this.batchSize = settings.getBatchLimit();
+        this.maxBatchBytes = settings.getMaxBatchBytes();
+        this.batchSizer = new AdaptiveBatchSizer(
+                settings.getMinBatchLimit(),
+                settings.getBatchLimit(),
+                Duration.ofMillis(settings.getTargetLatency()));
+        this.maxBatchesPerTick = settings.getMaxBatchesPerTick();
+        this.maxConcurrentBatchesPerSeller = settings.getMaxConcurrentBatchesPerSeller();
+        this.leaseDuration = Duration.ofMillis(settings.getLeaseDuration());
+        this.leaseOwner = System.getenv().getOrDefault("HOSTNAME", "local") + "-" + UUID.randomUUID();
+        this.dispatchPermits = new FairDispatchPermits(settings.getMaxConcurrentBatches(), sellerWeights);
+        this.ingestBatchSize = settings.getIngestBatchSize();
+        this.ingestLinger = Duration.ofMillis(settings.getIngestLinger());
+        this.directDispatch = settings.isDirectDispatch();
+        this.directLinger = Duration.ofMillis(settings.getDirectLinger());
+        this.directMaxQueuedFlushes = settings.getDirectMaxQueuedFlushes();
+        this.coalesce = settings.isCoalesce();
+        this.maxAttempts = settings.getMaxAttempts();
+        this.retryBaseDelay = settings.getRetryBaseDelay();
+        this.retryMaxDelay = settings.getRetryMaxDelay();
+        this.doneRetention = settings.getDoneRetention();
+        this.errorRetention = settings.getErrorRetention();
+        this.lane = executors.getDispatchScheduler().lane(integrationType, settings.getPriority(), settings.getMaxInFlightTicks());
+        this.timerPeriod = Duration.ofMillis(settings.getTimerPeriod());
+        this.maxIdlePeriod = Duration.ofMillis(settings.getMaxIdlePeriod());
     }
 
     public abstract DefaultResponse executeIntegration(List<T> list, String documentNumber);
 
-    protected void onTimerComplete() {
+    /**
+     * Reserves the seller's next hub call and returns how long to wait for it. Integrations without pacing go
+     * immediately.
+     */
+    protected AdaptiveRateLimiter.Reservation reserve(String documentNumber) {
+        return new AdaptiveRateLimiter.Reservation(true, Duration.ZERO);
+    }
+
+    /**
+     * Buffers a received integration; it is written with the rest of its micro-batch in one {@code insertMany}
+     * and the message is completed only after that write succeeds.
+     * <p>
+     * In direct dispatch mode the integration is buffered per seller instead and sent straight to the hub once
+     * {@code batchLimit} items or {@code directLinger} ms are reached. A seller's flushes are sent one at a time,
+     * in the order they were queued, so an older update never lands after a newer one. When
+     * {@code directMaxQueuedFlushes} are already waiting, the flush blocks the receiving thread, so a slow hub
+     * slows message intake instead of filling the heap. Only batches the hub rejects are written to the
+     * collection, where the timer-based retry picks them up.
+     */
+    protected void enqueue(Integration integration, InboundMessage message) {
+        var received = new ReceivedIntegration(integration, message);
+        metrics.ingested(integrationType, 1);
+
+        if (!directDispatch) {
+            ingestionBuffer().add(received);
+            return;
+        }
+
+        directBuffers.computeIfAbsent(integration.getDocumentNumber(), documentNumber -> {
+            // One flush in flight per seller: a later flush may carry a newer price for the same sku
+            var sellerFlushes = new SerialExecutor(dispatchExecutor, directMaxQueuedFlushes);
+            return new MessageBuffer<>(
+                    batchSize,
+                    directLinger,
+                    bufferScheduler,
+                    dispatchExecutor,
+                    batch -> sellerFlushes.execute(() -> dispatchDirect(batch, documentNumber)));
+        }).add(received);
+    }
+
+    private void dispatchDirect(List<ReceivedIntegration> received, String documentNumber) {
+        DefaultResponse response;
+        try {
+            List<T> integrationsPayload = new ArrayList<>(received.size());
+            for (ReceivedIntegration item : received) {
+                integrationsPayload.add(toPayload(item.integration().getObject()));
+            }
+
+            response = send(integrationsPayload, documentNumber).response();
+
+            if (response.getId() >= 0) {
+                received.forEach(x -> settle(x.message(), true));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = failedResponse(e);
+        } catch (Exception e) {
+            response = failedResponse(e);
+        }
+
+        logger.warn("Direct dispatch failed for seller {}, persisting {} items for retry: {}",
+                documentNumber, received.size(), response.getError());
+        var now = LocalDateTime.now();
+        var jitter = ThreadLocalRandom.current().nextDouble(0.5, 1.0);
+        for (ReceivedIntegration item : received) {
+            scheduleRetry(item.integration(), response, now, jitter);
+        }
+        persistReceived(received);
+    }
+
+    private void persistReceived(List<ReceivedIntegration> received) {
+        try {
+            baseMongoRepository.insertReceived(received.stream().map(ReceivedIntegration::integration).toList());
+        } catch (Exception e) {
+            logger.error("Error persisting {} received messages: {}", received.size(), e.getMessage());
+            received.forEach(x -> settle(x.message(), false));
+            return;
+        }
+
+        received.forEach(x -> settle(x.message(), true));
+
+        var trigger = batchTrigger;
+        if (trigger != null && pendingSinceCycle.addAndGet(received.size()) >= batchSize) {
+            pendingSinceCycle.set(0);
+            trigger.signal();
+        }
+    }
+
+    private MessageBuffer<ReceivedIntegration> ingestionBuffer() {
+        var buffer = ingestionBuffer;
+        if (buffer != null) return buffer;
+
+        synchronized (this) {
+            if (ingestionBuffer == null) {
+                ingestionBuffer = new MessageBuffer<>(
+                        ingestBatchSize,
+                        ingestLinger,
+                        bufferScheduler,
+                        dispatchExecutor,
+                        this::persistReceived);
+            }
+            return ingestionBuffer;
+        }
+    }
+
+    private void settle(InboundMessage message, boolean complete) {
+        try {
+            if (complete) {
+                message.complete();
+            } else {
+                message.abandon();
+            }
+        } catch (Exception e) {
+            logger.error("Error settling message {}: {}", message.getMessageId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drains every seller concurrently on virtual threads, bounded by {@code maxConcurrentBatches} in-flight
+     * batches overall and {@code maxConcurrentBatchesPerSeller} per seller. Sellers are started oldest backlog
+     * first and, when they compete for a slot, {@link FairDispatchPermits} hands it out by weighted fair
+     * queuing, so a seller with a huge backlog cannot keep a small one waiting for the whole cycle.
+     * <p>
+     * Each batch's outcome is written back as soon as it is known, while its lease is still fresh, so a long
+     * cycle or a crash never leaves sent rows IN_PROGRESS for another cycle to reclaim and send again.
+     * <p>
+     * Cycles are driven by the handler's {@link BatchTrigger}; the returned outcome tells it when to run next.
+     */
+    public BatchTrigger.Outcome onTimerComplete() {
+        pendingSinceCycle.set(0);
         try {
-            List<Integration> integrationsList = baseMongoRepository.findByStatusAndType(Status.PENDING, integrationType);
-
-            if (integrationsList.isEmpty()) return;
-
-            var groupedDocumentNumbers = integrationsList.stream()
-                    .map(Integration::getDocumentNumber)
-                    .distinct()
-                    .toList();
-
-            for (String documentNumber : groupedDocumentNumbers) {
-                List<Integration> integrationsEntities = integrationsList.stream()
-                        .filter(x -> x.getDocumentNumber().equals(documentNumber))
-                        .limit(batchSize)
-                        .toList();
-
-                List<T> integrationsPayload = integrationsEntities.stream()
-                        .map(integration -> {
-                            try {
-                                return objectMapper.readValue(integration.getObject(), getGenericClass());
-                            } catch (JsonProcessingException e) {
-                                logger.error("Error deserializing object: {}", e.getMessage());
-                                return null;
-                            }
-                        })
-                        .filter(Objects::nonNull)
-                        .toList();
-
-                if (integrationsPayload.isEmpty()) return;
-
-                DefaultResponse response = executeIntegration(integrationsPayload, documentNumber);
-
-                updateIntegrations(integrationsEntities, response);
+            var documentNumbers = baseMongoRepository.findClaimableDocumentNumbers(integrationType);
+
+            if (documentNumbers.isEmpty()) return BatchTrigger.Outcome.IDLE;
+
+            List<SellerDrain> drains = new ArrayList<>(documentNumbers.size());
+            Queue<Future<Integer>> workers = new ConcurrentLinkedQueue<>();
+            for (String documentNumber : documentNumbers) {
+                var drain = new SellerDrain(documentNumber, maxBatchesPerTick);
+                drains.add(drain);
+                startWorker(drain, workers);
+            }
+
+            int processed = 0;
+            Future<Integer> worker;
+            while ((worker = workers.poll()) != null) {
+                try {
+                    processed += worker.get();
+                } catch (ExecutionException e) {
+                    logger.error("Error in dispatch worker: {}", e.getCause().getMessage());
+                }
             }
+
+            if (processed == 0) return BatchTrigger.Outcome.IDLE;
+
+            return drains.stream().anyMatch(x -> x.backlogged)
+                    ? BatchTrigger.Outcome.BACKLOGGED
+                    : BatchTrigger.Outcome.DRAINED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             logger.error("Error in onTimerComplete: {}", e.getMessage());
         }
+        return BatchTrigger.Outcome.IDLE;
     }
 
-    private void updateIntegrations(List<Integration> integrationsEntities, DefaultResponse response) {
+    private void startWorker(SellerDrain drain, Queue<Future<Integer>> workers) {
+        int active;
+        while ((active = drain.activeWorkers.get()) < maxConcurrentBatchesPerSeller) {
+            if (drain.activeWorkers.compareAndSet(active, active + 1)) {
+                workers.add(dispatchExecutor.submit(() -> drainSeller(drain, workers)));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps claiming and sending chunks of the seller's backlog until it is empty or the per-tick budget
+     * runs out. While chunks come back full, a sibling worker is started up to the per-seller limit.
+     * Returns the number of rows processed.
+     */
+    private int drainSeller(SellerDrain drain, Queue<Future<Integer>> workers) throws InterruptedException {
+        int processed = 0;
+
+        // Siblings are only started after the first claim, so the first worker coalesces before anything is claimed
+        if (coalesce && getCoalescingField() != null && drain.coalesced.compareAndSet(false, true)) {
+            try {
+                coalescePending(drain.documentNumber);
+            } catch (Exception e) {
+                logger.error("Error coalescing seller {}: {}", drain.documentNumber, e.getMessage());
+            }
+        }
+
+        while (true) {
+            if (drain.remainingBatches.getAndDecrement() <= 0) {
+                drain.backlogged = true;
+                break;
+            }
+
+            try {
+                int limit = batchSizer.limit(drain.documentNumber);
+                List<Integration> integrationsEntities = baseMongoRepository.claimBatch(
+                        integrationType, drain.documentNumber, leaseOwner, leaseDuration, limit);
+
+                if (integrationsEntities.isEmpty()) break;
+
+                boolean hasMore = integrationsEntities.size() == limit;
+                if (hasMore) {
+                    startWorker(drain, workers);
+                }
+
+                boolean refused = dispatchBatch(integrationsEntities, drain.documentNumber);
+                baseMongoRepository.updateResults(integrationsEntities, leaseOwner);
+                processed += integrationsEntities.size();
+
+                // A refused seller would refuse every further chunk too; claiming them would only reschedule rows.
+                if (!hasMore || refused) break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Error draining seller {}: {}", drain.documentNumber, e.getMessage());
+                break;
+            }
+        }
+
+        drain.activeWorkers.decrementAndGet();
+        return processed;
+    }
+
+    /**
+     * Sends a claimed chunk and returns whether the seller was refused (throttled, circuit open) along the way.
+     */
+    private boolean dispatchBatch(List<Integration> integrationsEntities, String documentNumber) throws InterruptedException {
+        List<Integration> dispatchedEntities = new ArrayList<>(integrationsEntities.size());
+        List<T> integrationsPayload = new ArrayList<>(integrationsEntities.size());
+
         for (Integration integration : integrationsEntities) {
-            integration.setBatchId(response.getId());
-            integration.setStatus(response.getId() >= 0 ? Status.DONE : Status.PENDING);
-            integration.setUpdatedAt(LocalDateTime.now());
-            integration.setError(response.getId() < 0 ? response.getError() : "");
+            try {
+                integrationsPayload.add(toPayload(integration.getObject()));
+                dispatchedEntities.add(integration);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                logger.error("Error deserializing object: {}", e.getMessage());
+                setResult(integration, Status.ERROR, 0, e.getMessage(), LocalDateTime.now());
+            }
+        }
+
+        var jitter = ThreadLocalRandom.current().nextDouble(0.5, 1.0);
+        boolean refused = false;
+        int start = 0;
+        long bytes = 0;
+        for (int i = 0; i < dispatchedEntities.size(); i++) {
+            int payloadSize = dispatchedEntities.get(i).getPayloadSize();
+            if (i > start && bytes + payloadSize > maxBatchBytes) {
+                refused |= deliver(dispatchedEntities.subList(start, i), integrationsPayload.subList(start, i), documentNumber, jitter);
+                start = i;
+                bytes = 0;
+            }
+            bytes += payloadSize;
+        }
+        if (start < dispatchedEntities.size()) {
+            refused |= deliver(dispatchedEntities.subList(start, dispatchedEntities.size()),
+                    integrationsPayload.subList(start, integrationsPayload.size()), documentNumber, jitter);
+        }
+        return refused;
+    }
+
+    /**
+     * Makes one hub call. The seller's pacing delay is waited out before a dispatch slot is taken, so a paced
+     * seller never parks a slot that other sellers could use; a seller blocked for longer than the limiter's
+     * {@code maxWait} is refused locally with a 429 instead.
+     * <p>
+     * The returned latency covers the hub call alone, without pacing or waiting for a slot, and is null when
+     * the call was refused before reaching the hub.
+     */
+    private SendResult send(List<T> payloads, String documentNumber) throws InterruptedException {
+        var reservation = reserve(documentNumber);
+        if (!reservation.granted()) {
+            return new SendResult(throttled(documentNumber, reservation.delay()), null);
+        }
+        if (reservation.delay().isPositive()) {
+            Thread.sleep(reservation.delay());
+        }
 
-            baseMongoRepository.save(integration);
+        dispatchPermits.acquire(documentNumber, payloads.size());
+        try {
+            lane.acquireCall();
+            try {
+                long started = System.nanoTime();
+                var response = executeIntegration(payloads, documentNumber);
+                return new SendResult(response, Duration.ofNanos(System.nanoTime() - started));
+            } finally {
+                lane.releaseCall();
+            }
+        } finally {
+            dispatchPermits.release(documentNumber);
+        }
+    }
+
+    private static DefaultResponse throttled(String documentNumber, Duration wait) {
+        return DefaultResponse.builder()
+                .id(-1)
+                .error("Rate limit for seller " + documentNumber + " exceeded, retry in " + wait.toMillis() + " ms")
+                .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .retryAfter(Math.max(1, (wait.toMillis() + 999) / 1000))
+                .rejectedLocally(true)
+                .build();
+    }
+
+    private static boolean isRefused(DefaultResponse response) {
+        return response.isRejectedLocally() || response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * Sends the payloads and records the outcome. When the hub rejects the payload itself (400, 413 or 422),
+     * the batch is split in half and each half is sent again, so the offending items are isolated in a
+     * logarithmic number of calls: they end in ERROR with the hub's message while the rest are delivered.
+     * Returns whether the seller was refused.
+     */
+    private boolean deliver(List<Integration> entities, List<T> payloads, String documentNumber, double jitter) throws InterruptedException {
+        metrics.batchSize(integrationType, payloads.size());
+        var sent = send(payloads, documentNumber);
+        var response = sent.response();
+        var updatedAt = LocalDateTime.now();
+        recordBatchSize(documentNumber, payloads.size(), sent);
+
+        if (response.getId() >= 0) {
+            for (Integration integration : entities) {
+                setResult(integration, Status.DONE, response.getId(), "", updatedAt);
+            }
+            return false;
+        }
+
+        if (!isRejection(response)) {
+            for (Integration integration : entities) {
+                scheduleRetry(integration, response, updatedAt, jitter);
+            }
+            return isRefused(response);
+        }
+
+        if (entities.size() == 1) {
+            var integration = entities.get(0);
+            logger.warn("Hub rejected integration {} for seller {}: {}", integration.getId(), documentNumber, response.getError());
+            integration.setAttemptCount(integration.getAttemptCount() + 1);
+            integration.setNextAttemptAt(null);
+            setResult(integration, Status.ERROR, response.getId(), response.getError(), updatedAt);
+            return false;
+        }
+
+        int middle = entities.size() / 2;
+        boolean refused = deliver(entities.subList(0, middle), payloads.subList(0, middle), documentNumber, jitter);
+        return deliver(entities.subList(middle, entities.size()), payloads.subList(middle, payloads.size()), documentNumber, jitter)
+                || refused;
+    }
+
+    /**
+     * Feeds the seller's batch sizer: delivered batches may grow it and timeouts shrink it. Rejections and local
+     * refusals say nothing about how large a batch the hub can take, so they are left out.
+     */
+    private void recordBatchSize(String documentNumber, int size, SendResult sent) {
+        if (sent.latency() == null || sent.response().isRejectedLocally()) return;
+
+        if (sent.response().getId() >= 0) {
+            batchSizer.record(documentNumber, size, sent.latency(), false);
+        } else if (isTimeout(sent.response())) {
+            batchSizer.record(documentNumber, size, sent.latency(), true);
+        }
+    }
+
+    /**
+     * A failure caused by the hub not answering in time; Feign reports I/O timeouts without a status code.
+     */
+    private static boolean isTimeout(DefaultResponse response) {
+        if (response.getId() >= 0) return false;
+
+        int statusCode = response.getStatusCode();
+        return statusCode <= 0
+                || statusCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT
+                || statusCode == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * A rejection of the payload that resending the same body cannot fix. Other 4xx (revoked keys, a missing
+     * endpoint, throttling) concern the seller or the configuration and would fail every half alike, so those
+     * rows are rescheduled instead of bisected.
+     */
+    private static boolean isRejection(DefaultResponse response) {
+        int statusCode = response.getStatusCode();
+        return statusCode == HttpURLConnection.HTTP_BAD_REQUEST
+                || statusCode == HttpURLConnection.HTTP_ENTITY_TOO_LARGE
+                || statusCode == HttpStatus.UNPROCESSABLE_ENTITY.value();
+    }
+
+    /**
+     * Supersedes, across the seller's whole pending backlog, every update a newer one with the same coalescing
+     * key overtakes, so chunks are claimed from the newest update per key only.
+     */
+    private void coalescePending(String documentNumber) {
+        var updatedAt = LocalDateTime.now();
+        long superseded = baseMongoRepository.supersedePending(integrationType, documentNumber, getCoalescingField(),
+                SUPERSEDED_ERROR, updatedAt, expireAt(Status.DONE, updatedAt));
+        if (superseded > 0) {
+            logger.info("Superseded {} pending updates of seller {}", superseded, documentNumber);
+        }
+    }
+
+    /**
+     * Payload field under which pending updates supersede each other when {@code coalesce} is enabled for the
+     * integration, or {@code null} when the integration cannot be coalesced.
+     */
+    protected String getCoalescingField() {
+        return null;
+    }
+
+    private T toPayload(Object object) throws JsonProcessingException {
+        if (getGenericClass().isInstance(object)) {
+            return getGenericClass().cast(object);
+        }
+        if (object instanceof String json) {
+            return objectMapper.readValue(json, getGenericClass());
+        }
+        return objectMapper.convertValue(object, getGenericClass());
+    }
+
+    /**
+     * Records a failed attempt and leaves the row PENDING until its exponential backoff, scaled by
+     * {@code jitter}, has passed, or moves it to ERROR once {@code maxAttempts} is reached.
+     * <p>
+     * A throttled (429) call or one refused locally by the seller's circuit breaker or bulkhead is not counted
+     * as an attempt; the row simply waits for the Retry-After, so an outage cannot exhaust {@code maxAttempts}.
+     */
+    private void scheduleRetry(Integration integration, DefaultResponse response, LocalDateTime updatedAt, double jitter) {
+        long batchId = response.getId();
+        String error = response.getError();
+
+        if (isRefused(response)) {
+            var retryAfter = response.getRetryAfter() > 0 ? Duration.ofSeconds(response.getRetryAfter()) : Duration.ofMillis(retryBaseDelay);
+            integration.setNextAttemptAt(updatedAt.plus(retryAfter));
+            setResult(integration, Status.PENDING, batchId, error, updatedAt);
+            metrics.retried(integrationType, response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value() ? "throttled" : "rejected");
+            return;
+        }
+
+        int attempt = integration.getAttemptCount() + 1;
+        integration.setAttemptCount(attempt);
+
+        if (attempt >= maxAttempts) {
+            integration.setNextAttemptAt(null);
+            setResult(integration, Status.ERROR, batchId, error, updatedAt);
+            return;
+        }
+
+        long backoff = Math.min(retryMaxDelay, retryBaseDelay * (1L << Math.min(attempt - 1, 30)));
+        integration.setNextAttemptAt(updatedAt.plus(Duration.ofMillis((long) (backoff * jitter))));
+        setResult(integration, Status.PENDING, batchId, error, updatedAt);
+        metrics.retried(integrationType, "backoff");
+    }
+
+    private DefaultResponse failedResponse(Exception e) {
+        return DefaultResponse.builder()
+                .id(-1)
+                .error(e.getMessage())
+                .statusCode(HttpURLConnection.HTTP_INTERNAL_ERROR)
+                .build();
+    }
+
+    private void setResult(Integration integration, Status status, long batchId, String error, LocalDateTime updatedAt) {
+        integration.setBatchId(batchId);
+        integration.setStatus(status);
+        integration.setUpdatedAt(updatedAt);
+        integration.setError(error);
+        integration.setExpireAt(expireAt(status, updatedAt));
+
+        if (status != Status.PENDING && integration.getCreatedAt() != null) {
+            metrics.lag(integrationType, status, Duration.between(integration.getCreatedAt(), updatedAt));
+        }
+    }
+
+    private LocalDateTime expireAt(Status status, LocalDateTime updatedAt) {
+        var retention = switch (status) {
+            case DONE -> doneRetention;
+            case ERROR -> errorRetention;
+            default -> null;
+        };
+
+        if (retention == null || retention.isZero() || retention.isNegative()) return null;
+        return updatedAt.plus(retention);
+    }
+
+    public void refreshBacklog() {
+        try {
+            metrics.updateBacklog(integrationType, baseMongoRepository.countBacklog(integrationType));
+        } catch (Exception e) {
+            logger.warn("Could not refresh backlog for {}: {}", integrationType, e.getMessage());
         }
     }
 
     protected abstract Class<T> getGenericClass();
 
+    /**
+     * Starts receiving messages and the batch cycles. The trigger is built here rather than in the constructor,
+     * so no tick can run against a handler whose subclass is not fully initialised.
+     */
+    @Override
+    public synchronized void start() {
+        if (batchTrigger != null) return;
+
+        batchTrigger = new BatchTrigger(
+                lane,
+                this::onTimerComplete,
+                () -> metrics.tickSkipped(integrationType),
+                timerPeriod,
+                maxIdlePeriod);
+        super.start();
+        batchTrigger.start();
+    }
+
     @Override
-    protected void messageHandler(ServiceBusReceivedMessageContext context) {
+    public void stop() {
+        directBuffers.values().forEach(MessageBuffer::flush);
+        var buffer = ingestionBuffer;
+        if (buffer != null) buffer.flush();
+        super.stop();
+        var trigger = batchTrigger;
+        if (trigger != null) trigger.stop();
+    }
+
+    /**
+     * Decodes the message into the integration's payload class and buffers it for persistence or direct
+     * dispatch. Messages that cannot be decoded are dead-lettered, since redelivering them cannot succeed, and
+     * stay available there for inspection.
+     */
+    @Override
+    public void messageHandler(InboundMessage message) {
+        try {
+            var bytes = message.getBody();
+            T payload = objectMapper.readValue(bytes, getGenericClass());
 
+            Integration integration = new Integration();
+            integration.setStatus(Status.PENDING);
+            integration.setType(integrationType);
+            integration.setDocumentNumber(message.getTo());
+            integration.setObject(payload);
+            integration.setPayloadSize(bytes.length);
+            integration.setMessageId(message.getMessageId());
+            enqueue(integration, message);
+        } catch (IOException e) {
+            logger.error("Error processing JSON, dead-lettering message {}: {}", message.getMessageId(), e.getMessage());
+            message.deadLetter(UNDECODABLE_REASON, e.getMessage());
+        }
+    }
+
+    private record ReceivedIntegration(Integration integration, InboundMessage message) {
+    }
+
+    private record SendResult(DefaultResponse response, Duration latency) {
+    }
+
+    private static final class SellerDrain {
+        private final String documentNumber;
+        private final AtomicInteger remainingBatches;
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private final AtomicBoolean coalesced = new AtomicBoolean();
+        private volatile boolean backlogged;
+
+        private SellerDrain(String documentNumber, int maxBatches) {
+            this.documentNumber = documentNumber;
+            this.remainingBatches = new AtomicInteger(maxBatches);
+        }
     }
 }
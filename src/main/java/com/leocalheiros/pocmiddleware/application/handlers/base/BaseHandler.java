@@ -1,41 +1,35 @@
 package com.leocalheiros.pocmiddleware.application.handlers.base;
 
-import com.azure.messaging.servicebus.ServiceBusClientBuilder;
-import com.azure.messaging.servicebus.ServiceBusErrorContext;
-import com.azure.messaging.servicebus.ServiceBusProcessorClient;
-import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
-import jakarta.annotation.PreDestroy;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+/**
+ * Receives messages from the integration queue through a {@link MessageSource}. Messages are not settled
+ * automatically, so {@link #messageHandler} implementations are responsible for settling every message they
+ * receive. Handlers are started and stopped by {@link HandlerRegistry}.
+ */
 public abstract class BaseHandler {
     private final Logger logger = LoggerFactory.getLogger(BaseHandler.class);
 
-    private final ServiceBusProcessorClient processorClient;
+    private final MessageSource messageSource;
+    private final String queueName;
 
-    protected BaseHandler(String connectionString, String queueName) {
-        ServiceBusClientBuilder builder = new ServiceBusClientBuilder().connectionString(connectionString);
-        this.processorClient = builder
-                .processor()
-                .queueName(queueName)
-                .processMessage(this::messageHandler)
-                .processError(this::errorHandler)
-                .buildProcessorClient();
+    protected BaseHandler(MessageSourceFactory messageSourceFactory, IntegrationParametersSettings settings) {
+        this.messageSource = messageSourceFactory.create(settings);
+        this.queueName = settings.getQueueName();
+    }
 
-        processorClient.start();
-        logger.info("Processor started for queue: {}", processorClient.getQueueName());
+    public void start() {
+        messageSource.start(this::messageHandler);
+        logger.info("Processor started for queue: {}", queueName);
     }
 
-    @PreDestroy
     public void stop() {
-        processorClient.close();
-        logger.info("Processor stopped for queue: {}", processorClient.getQueueName());
+        messageSource.close();
+        logger.info("Processor stopped for queue: {}", queueName);
     }
 
-    protected abstract void messageHandler(ServiceBusReceivedMessageContext context);
-
-    private void errorHandler(ServiceBusErrorContext context) {
-        logger.error("Erro ao processar mensagem", context.getException());
-    }
+    protected abstract void messageHandler(InboundMessage message);
 }
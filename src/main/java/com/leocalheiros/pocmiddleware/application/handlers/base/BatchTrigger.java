@@ -0,0 +1,115 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs batch cycles one at a time and decides when the next one is due: immediately while a cycle leaves
+ * backlog behind, after {@code period} once it drained everything, and backing off up to {@code maxIdlePeriod}
+ * while cycles find nothing to do. {@link #signal()} wakes it early when ingestion has a full batch waiting.
+ * <p>
+ * Cycles run on the handler's {@link DispatchScheduler.Lane}. A tick that comes due while the lane is full is
+ * skipped and reported to {@code onSkipped}; the cycle that is still running schedules the next one.
+ */
+public class BatchTrigger {
+    public enum Outcome { IDLE, DRAINED, BACKLOGGED }
+
+    private final Logger logger = LoggerFactory.getLogger(BatchTrigger.class);
+
+    private final DispatchScheduler.Lane lane;
+    private final Supplier<Outcome> cycle;
+    private final Runnable onSkipped;
+    private final long periodMillis;
+    private final long maxIdlePeriodMillis;
+
+    private ScheduledFuture<?> next;
+    private long idleDelayMillis;
+    private boolean stopped;
+
+    public BatchTrigger(
+            DispatchScheduler.Lane lane,
+            Supplier<Outcome> cycle,
+            Runnable onSkipped,
+            Duration period,
+            Duration maxIdlePeriod) {
+        this.lane = lane;
+        this.cycle = cycle;
+        this.onSkipped = onSkipped;
+        this.periodMillis = period.toMillis();
+        this.maxIdlePeriodMillis = Math.max(periodMillis, maxIdlePeriod.toMillis());
+        this.idleDelayMillis = periodMillis;
+    }
+
+    public void start() {
+        schedule(periodMillis);
+    }
+
+    public synchronized void signal() {
+        idleDelayMillis = periodMillis;
+        schedule(0);
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    private void fire() {
+        synchronized (this) {
+            next = null;
+        }
+
+        if (!lane.tryRun(this::run)) {
+            onSkipped.run();
+        }
+    }
+
+    private void run() {
+        Outcome outcome;
+        try {
+            outcome = cycle.get();
+        } catch (Exception e) {
+            logger.error("Error in batch cycle: {}", e.getMessage());
+            outcome = Outcome.IDLE;
+        } finally {
+            // Released before rescheduling, so a tick that comes due right away is not skipped.
+            lane.release();
+        }
+
+        synchronized (this) {
+            switch (outcome) {
+                case BACKLOGGED -> {
+                    idleDelayMillis = periodMillis;
+                    schedule(0);
+                }
+                case DRAINED -> {
+                    idleDelayMillis = periodMillis;
+                    schedule(periodMillis);
+                }
+                case IDLE -> {
+                    schedule(idleDelayMillis);
+                    idleDelayMillis = Math.min(idleDelayMillis * 2, maxIdlePeriodMillis);
+                }
+            }
+        }
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (stopped || lane.isShutdown()) return;
+
+        if (next != null) {
+            if (next.getDelay(TimeUnit.MILLISECONDS) <= delayMillis) return;
+            next.cancel(false);
+        }
+
+        next = lane.schedule(this::fire, delayMillis);
+    }
+}
@@ -0,0 +1,114 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs batch cycles on one worker lane per {@link IntegrationType}, so a slow stock or price tick never delays
+ * the next order-status tick. The shared timer only decides when a tick is due and hands it to its lane; it
+ * never runs a cycle itself.
+ * <p>
+ * Each lane runs at most {@code maxInFlightTicks} ticks at once and skips a tick that comes due while it is full
+ * instead of queueing it, because the running tick reschedules the next one when it finishes.
+ * <p>
+ * Hub calls of every type also share {@code maxConcurrentCalls} slots. When types compete for them, slots are
+ * granted by {@link FairDispatchPermits} in proportion to each lane's {@code priority}, so a busy low-value type
+ * cannot crowd latency-critical calls out of the shared connections and pools.
+ */
+public class DispatchScheduler {
+    private final ScheduledExecutorService timer;
+    private final Map<IntegrationType, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> priorities = new ConcurrentHashMap<>();
+    private final FairDispatchPermits calls;
+
+    public DispatchScheduler(ScheduledExecutorService timer, int maxConcurrentCalls) {
+        this.timer = timer;
+        this.calls = new FairDispatchPermits(maxConcurrentCalls, typeName -> priorities.getOrDefault(typeName, 1));
+    }
+
+    /**
+     * Returns the lane for {@code type}, creating it on first use. Later calls for the same type reuse it and
+     * keep the priority and in-flight limit it was created with.
+     */
+    public Lane lane(IntegrationType type, int priority, int maxInFlightTicks) {
+        return lanes.computeIfAbsent(type, key -> {
+            priorities.put(key.name(), Math.max(1, priority));
+            return new Lane(key, maxInFlightTicks);
+        });
+    }
+
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.workers.shutdown());
+    }
+
+    public class Lane {
+        private final String typeName;
+        private final int maxInFlightTicks;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final ExecutorService workers;
+
+        private Lane(IntegrationType type, int maxInFlightTicks) {
+            this.typeName = type.name();
+            this.maxInFlightTicks = Math.max(1, maxInFlightTicks);
+
+            var threadNumber = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(this.maxInFlightTicks, runnable -> {
+                var thread = new Thread(runnable, "dispatch-" + type.name().toLowerCase() + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        public ScheduledFuture<?> schedule(Runnable command, long delayMillis) {
+            return timer.schedule(command, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Starts {@code tick} on the lane if fewer than {@code maxInFlightTicks} are running, otherwise returns
+         * false without running it. The tick must call {@link #release()} once its cycle is over.
+         */
+        public boolean tryRun(Runnable tick) {
+            while (true) {
+                var current = inFlight.get();
+                if (current >= maxInFlightTicks) return false;
+                if (inFlight.compareAndSet(current, current + 1)) break;
+            }
+
+            try {
+                workers.execute(tick);
+                return true;
+            } catch (RuntimeException e) {
+                release();
+                return false;
+            }
+        }
+
+        public void release() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * Blocks until the lane gets one of the shared hub call slots. The caller must call {@link #releaseCall()}
+         * once the call is done.
+         */
+        public void acquireCall() throws InterruptedException {
+            calls.acquire(typeName, 1);
+        }
+
+        public void releaseCall() {
+            calls.release(typeName);
+        }
+
+        public boolean isShutdown() {
+            return timer.isShutdown() || workers.isShutdown();
+        }
+    }
+}
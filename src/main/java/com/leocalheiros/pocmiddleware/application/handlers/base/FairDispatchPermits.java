@@ -0,0 +1,128 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the batches in flight for a handler and, when sellers are waiting for a slot, grants it by start-time
+ * fair queuing keyed on {@code documentNumber}. Every grant charges the seller {@code cost / weight} of virtual
+ * time and the waiter with the smallest virtual start goes next, so a seller with a 200k-row backlog gets its
+ * weighted share of slots rather than all of them, and a seller that was idle starts at the current virtual
+ * clock instead of cashing in credit for the time it sent nothing. Equal tags go to whoever asked first.
+ * <p>
+ * Waiting uses a {@link ReentrantLock} rather than monitors because the callers are virtual threads.
+ */
+public class FairDispatchPermits {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>();
+    private final Map<String, SellerState> sellers = new HashMap<>();
+    private final SellerWeights weights;
+
+    private int available;
+    private double virtualClock;
+    private long arrivals;
+
+    public FairDispatchPermits(int permits, SellerWeights weights) {
+        this.available = permits;
+        this.weights = weights;
+    }
+
+    /**
+     * Blocks until {@code documentNumber} may send a batch of {@code cost} items. The caller must call
+     * {@link #release} once the batch is done.
+     */
+    public void acquire(String documentNumber, int cost) throws InterruptedException {
+        lock.lock();
+        try {
+            var seller = sellers.computeIfAbsent(documentNumber, key -> new SellerState(Math.max(1, weights.weight(key))));
+            var waiter = new Waiter(Math.max(virtualClock, seller.finishTag), arrivals++, lock.newCondition());
+            seller.finishTag = waiter.startTag + (double) cost / seller.weight;
+            seller.active++;
+
+            waiting.add(waiter);
+            grant();
+            try {
+                while (!waiter.granted) {
+                    waiter.condition.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    releaseLocked(seller, documentNumber);
+                } else {
+                    waiting.remove(waiter);
+                    seller.finishTag -= (double) cost / seller.weight;
+                    seller.active--;
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(String documentNumber) {
+        lock.lock();
+        try {
+            var seller = sellers.get(documentNumber);
+            if (seller == null) return;
+
+            releaseLocked(seller, documentNumber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(SellerState seller, String documentNumber) {
+        available++;
+        seller.active--;
+
+        // An idle seller is rebased to the virtual clock on its next acquire, so its state carries nothing once
+        // its last charge has been served.
+        if (seller.active == 0 && seller.finishTag <= virtualClock) {
+            sellers.remove(documentNumber);
+        }
+        grant();
+    }
+
+    private void grant() {
+        while (available > 0 && !waiting.isEmpty()) {
+            var next = waiting.poll();
+            available--;
+            virtualClock = Math.max(virtualClock, next.startTag);
+            next.granted = true;
+            next.condition.signal();
+        }
+    }
+
+    private static final class SellerState {
+        private final int weight;
+        private double finishTag;
+        private int active;
+
+        private SellerState(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final double startTag;
+        private final long arrival;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(double startTag, long arrival, Condition condition) {
+            this.startTag = startTag;
+            this.arrival = arrival;
+            this.condition = condition;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byTag = Double.compare(startTag, other.startTag);
+            return byTag != 0 ? byTag : Long.compare(arrival, other.arrival);
+        }
+    }
+}
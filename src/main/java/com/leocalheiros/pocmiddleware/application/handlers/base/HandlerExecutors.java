@@ -0,0 +1,57 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Threads shared by every integration handler: virtual threads for blocking work (hub calls, Mongo writes),
+ * a single timer thread that only triggers buffer flushes and batch ticks and never runs them itself, and the
+ * {@link DispatchScheduler} lanes the batch cycles run on.
+ */
+@Component
+public class HandlerExecutors {
+    private static final int DEFAULT_MAX_CONCURRENT_HUB_CALLS = 64;
+
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final DispatchScheduler dispatchScheduler;
+
+    public HandlerExecutors() {
+        this(DEFAULT_MAX_CONCURRENT_HUB_CALLS);
+    }
+
+    /**
+     * @param maxConcurrentHubCalls hub calls in flight across all integration types, shared between the
+     *                              lanes by their priority
+     */
+    @Autowired
+    public HandlerExecutors(
+            @Value("${dispatch.max-concurrent-hub-calls:" + DEFAULT_MAX_CONCURRENT_HUB_CALLS + "}") int maxConcurrentHubCalls) {
+        this.dispatchScheduler = new DispatchScheduler(timer, maxConcurrentHubCalls);
+    }
+
+    public ExecutorService getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    public ScheduledExecutorService getTimer() {
+        return timer;
+    }
+
+    public DispatchScheduler getDispatchScheduler() {
+        return dispatchScheduler;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdown();
+        dispatchScheduler.shutdown();
+        dispatchExecutor.shutdown();
+    }
+}
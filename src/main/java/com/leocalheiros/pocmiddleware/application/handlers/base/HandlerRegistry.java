@@ -0,0 +1,100 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationSettings;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates and owns one handler per entry in {@code integration-settings} whose type has an
+ * {@link IntegrationExecutor} bean. All handlers consume through the same {@link MessageSourceFactory} and share
+ * the {@link HandlerExecutors}, so adding an integration adds a queue processor, not a connection or a pool.
+ */
+@Component
+public class HandlerRegistry {
+    private final Logger logger = LoggerFactory.getLogger(HandlerRegistry.class);
+
+    private final List<BaseBatchHandler<?>> handlers = new ArrayList<>();
+
+    public HandlerRegistry(
+            IntegrationSettings integrationSettings,
+            List<IntegrationExecutor<?>> integrationExecutors,
+            MessageSourceFactory messageSourceFactory,
+            BaseMongoRepository baseMongoRepository,
+            ObjectMapper objectMapper,
+            IntegrationMetrics metrics,
+            HandlerExecutors executors,
+            UappiSettings uappiSettings) {
+        SellerWeights sellerWeights = documentNumber -> sellerWeight(uappiSettings, documentNumber);
+        Map<IntegrationType, IntegrationExecutor<?>> executorsByType = new EnumMap<>(IntegrationType.class);
+        integrationExecutors.forEach(executor -> executorsByType.put(executor.getType(), executor));
+
+        integrationSettings.entries().forEach((name, settings) -> {
+            var executor = executorsByType.get(settings.getType());
+            if (executor == null) {
+                logger.warn("No executor bound for integration {} ({}), it will not be consumed", name, settings.getType());
+                return;
+            }
+            handlers.add(createHandler(messageSourceFactory, settings, baseMongoRepository, objectMapper, metrics, executors, sellerWeights, executor));
+        });
+    }
+
+    private static <T> IntegrationHandler<T> createHandler(
+            MessageSourceFactory messageSourceFactory,
+            IntegrationParametersSettings settings,
+            BaseMongoRepository baseMongoRepository,
+            ObjectMapper objectMapper,
+            IntegrationMetrics metrics,
+            HandlerExecutors executors,
+            SellerWeights sellerWeights,
+            IntegrationExecutor<T> executor) {
+        return new IntegrationHandler<>(messageSourceFactory, settings, baseMongoRepository, objectMapper, metrics, executors, sellerWeights, executor);
+    }
+
+    private static int sellerWeight(UappiSettings uappiSettings, String documentNumber) {
+        var hub = uappiSettings.getHub();
+        if (hub == null || hub.getSellers() == null) return 1;
+
+        var sellerSettings = hub.getSellers().get(documentNumber);
+        return sellerSettings != null ? sellerSettings.getWeight() : 1;
+    }
+
+    public List<BaseBatchHandler<?>> getHandlers() {
+        return List.copyOf(handlers);
+    }
+
+    @PostConstruct
+    public void start() {
+        handlers.forEach(BaseBatchHandler::start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        handlers.forEach(handler -> {
+            try {
+                handler.stop();
+            } catch (Exception e) {
+                logger.error("Error stopping handler: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 30000)
+    public void refreshBacklog() {
+        handlers.forEach(BaseBatchHandler::refreshBacklog);
+    }
+}
@@ -0,0 +1,23 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+/**
+ * A message delivered to a handler. Handlers settle every message exactly once, with {@link #complete()} after
+ * it has been durably accepted, {@link #abandon()} to have it redelivered or {@link #deadLetter} when it can
+ * never be processed.
+ */
+public interface InboundMessage {
+    String getMessageId();
+
+    /**
+     * The seller's document number the message is addressed to.
+     */
+    String getTo();
+
+    byte[] getBody();
+
+    void complete();
+
+    void abandon();
+
+    void deadLetter(String reason, String description);
+}
@@ -0,0 +1,35 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Binds an {@link IntegrationType} to its payload class and to the hub call that delivers a batch of payloads.
+ * {@link HandlerRegistry} creates a handler for every configured integration that has an executor bean.
+ */
+public interface IntegrationExecutor<T> {
+    IntegrationType getType();
+
+    Class<T> getPayloadClass();
+
+    DefaultResponse execute(List<T> payloads, String documentNumber);
+
+    /**
+     * Reserves the seller's next call to the hub endpoint; see {@link BaseBatchHandler#reserve(String)}.
+     */
+    default AdaptiveRateLimiter.Reservation reserve(String documentNumber) {
+        return new AdaptiveRateLimiter.Reservation(true, Duration.ZERO);
+    }
+
+    /**
+     * Payload field under which pending updates supersede each other when {@code coalesce} is enabled for the
+     * integration, or {@code null} when the integration cannot be coalesced.
+     */
+    default String getCoalescingField() {
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
+
+import java.util.List;
+
+/**
+ * Batch handler whose payload class and hub call come from an {@link IntegrationExecutor}.
+ */
+public class IntegrationHandler<T> extends BaseBatchHandler<T> {
+    private final IntegrationExecutor<T> executor;
+
+    public IntegrationHandler(
+            MessageSourceFactory messageSourceFactory,
+            IntegrationParametersSettings settings,
+            BaseMongoRepository baseMongoRepository,
+            ObjectMapper objectMapper,
+            IntegrationMetrics metrics,
+            HandlerExecutors executors,
+            SellerWeights sellerWeights,
+            IntegrationExecutor<T> executor) {
+        super(messageSourceFactory, settings, baseMongoRepository, objectMapper, metrics, executors, sellerWeights);
+        this.executor = executor;
+    }
+
+    @Override
+    public DefaultResponse executeIntegration(List<T> list, String documentNumber) {
+        return executor.execute(list, documentNumber);
+    }
+
+    @Override
+    protected AdaptiveRateLimiter.Reservation reserve(String documentNumber) {
+        return executor.reserve(documentNumber);
+    }
+
+    @Override
+    protected String getCoalescingField() {
+        return executor.getCoalescingField();
+    }
+
+    @Override
+    protected Class<T> getGenericClass() {
+        return executor.getPayloadClass();
+    }
+}
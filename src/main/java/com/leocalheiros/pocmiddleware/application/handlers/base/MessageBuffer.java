@@ -0,0 +1,70 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates items and hands them to the flusher as one list once {@code maxSize} items are buffered or
+ * {@code linger} has passed since the first buffered item, whichever comes first. Size-triggered flushes run
+ * on the caller's thread; linger flushes are handed to {@code flushExecutor} so the timer thread never blocks.
+ */
+public class MessageBuffer<E> {
+    private final int maxSize;
+    private final Duration linger;
+    private final ScheduledExecutorService scheduler;
+    private final Executor flushExecutor;
+    private final Consumer<List<E>> flusher;
+
+    private List<E> items = new ArrayList<>();
+    private ScheduledFuture<?> lingerTask;
+
+    public MessageBuffer(int maxSize, Duration linger, ScheduledExecutorService scheduler, Executor flushExecutor,
+                         Consumer<List<E>> flusher) {
+        this.maxSize = maxSize;
+        this.linger = linger;
+        this.scheduler = scheduler;
+        this.flushExecutor = flushExecutor;
+        this.flusher = flusher;
+    }
+
+    public void add(E item) {
+        List<E> ready = null;
+
+        synchronized (this) {
+            items.add(item);
+            if (items.size() >= maxSize) {
+                ready = drain();
+            } else if (lingerTask == null) {
+                lingerTask = scheduler.schedule(() -> flushExecutor.execute(this::flush), linger.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (ready != null) flusher.accept(ready);
+    }
+
+    public void flush() {
+        List<E> ready;
+        synchronized (this) {
+            ready = drain();
+        }
+
+        if (!ready.isEmpty()) flusher.accept(ready);
+    }
+
+    private List<E> drain() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+
+        var ready = items;
+        items = new ArrayList<>(maxSize);
+        return ready;
+    }
+}
@@ -0,0 +1,13 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import java.util.function.Consumer;
+
+/**
+ * Delivers the messages of one integration queue to a handler.
+ */
+public interface MessageSource extends AutoCloseable {
+    void start(Consumer<InboundMessage> handler);
+
+    @Override
+    void close();
+}
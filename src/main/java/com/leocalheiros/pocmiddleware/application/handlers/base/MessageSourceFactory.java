@@ -0,0 +1,12 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+
+/**
+ * Creates the {@link MessageSource} a handler consumes, based on the queue and concurrency settings of its
+ * integration.
+ */
+@FunctionalInterface
+public interface MessageSourceFactory {
+    MessageSource create(IntegrationParametersSettings settings);
+}
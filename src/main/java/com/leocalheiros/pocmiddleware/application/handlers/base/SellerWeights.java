@@ -0,0 +1,11 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+/**
+ * Relative share of dispatch capacity a seller gets when several sellers have backlog at the same time.
+ */
+@FunctionalInterface
+public interface SellerWeights {
+    SellerWeights EQUAL = documentNumber -> 1;
+
+    int weight(String documentNumber);
+}
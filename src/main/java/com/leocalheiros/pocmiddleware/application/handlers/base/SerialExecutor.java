@@ -0,0 +1,75 @@
+package com.leocalheiros.pocmiddleware.application.handlers.base;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs submitted tasks one at a time, in submission order, on the delegate executor. Used to keep a seller's
+ * direct flushes from overtaking each other, so an older update can never reach the hub after a newer one.
+ * <p>
+ * At most {@code maxQueued} tasks wait behind the running one; further submitters block until a slot frees up,
+ * which pushes back on whoever is producing the tasks instead of piling them up in memory. Waiting uses a
+ * {@link ReentrantLock} rather than monitors because the submitters are virtual threads.
+ */
+public class SerialExecutor implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(SerialExecutor.class);
+
+    private final Executor delegate;
+    private final int maxQueued;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private boolean running;
+
+    public SerialExecutor(Executor delegate, int maxQueued) {
+        this.delegate = delegate;
+        this.maxQueued = Math.max(1, maxQueued);
+    }
+
+    /**
+     * Queues {@code task}, blocking while {@code maxQueued} tasks are already waiting.
+     */
+    @Override
+    public void execute(Runnable task) {
+        lock.lock();
+        try {
+            while (tasks.size() >= maxQueued) {
+                notFull.awaitUninterruptibly();
+            }
+            tasks.add(task);
+            if (running) return;
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        delegate.execute(this::runAll);
+    }
+
+    private void runAll() {
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                task = tasks.poll();
+                if (task == null) {
+                    running = false;
+                    return;
+                }
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Error in serial task: {}", e.getMessage());
+            }
+        }
+    }
+}
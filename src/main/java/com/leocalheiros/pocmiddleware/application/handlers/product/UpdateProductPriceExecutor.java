@@ -0,0 +1,47 @@
+package com.leocalheiros.pocmiddleware.application.handlers.product;
+
+import com.leocalheiros.pocmiddleware.application.dtos.requests.UpdateProductPriceRequest;
+import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
+import com.leocalheiros.pocmiddleware.application.dtos.responses.UpdateProductPriceResponse;
+import com.leocalheiros.pocmiddleware.application.handlers.base.IntegrationExecutor;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
+import com.leocalheiros.pocmiddleware.infra.services.hub.impl.UappiHubServiceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class UpdateProductPriceExecutor implements IntegrationExecutor<UpdateProductPriceRequest> {
+    private final UappiHubServiceImpl uappiHubService;
+
+    public UpdateProductPriceExecutor(UappiHubServiceImpl uappiHubService) {
+        this.uappiHubService = uappiHubService;
+    }
+
+    @Override
+    public IntegrationType getType() {
+        return IntegrationType.PRODUCTPRICEUPDATE;
+    }
+
+    @Override
+    public Class<UpdateProductPriceRequest> getPayloadClass() {
+        return UpdateProductPriceRequest.class;
+    }
+
+    @Override
+    public DefaultResponse execute(List<UpdateProductPriceRequest> payloads, String documentNumber) {
+        UpdateProductPriceResponse payload = new UpdateProductPriceResponse(payloads);
+        return uappiHubService.updateProductPrice(payload, documentNumber);
+    }
+
+    @Override
+    public AdaptiveRateLimiter.Reservation reserve(String documentNumber) {
+        return uappiHubService.reserve(documentNumber);
+    }
+
+    @Override
+    public String getCoalescingField() {
+        return "sku";
+    }
+}
@@ -0,0 +1,15 @@
+package com.leocalheiros.pocmiddleware.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "resilience4j.bulkhead.instances.bulkhead-default")
+public class BulkheadSettings {
+    private int maxConcurrentCalls;
+    private int maxWaitDuration;
+}
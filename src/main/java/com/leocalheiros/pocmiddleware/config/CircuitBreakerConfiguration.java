@@ -1,13 +1,10 @@
 package com.leocalheiros.pocmiddleware.config;
 
-import com.azure.core.exception.HttpRequestException;
 import feign.FeignException;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
-import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
-import io.github.resilience4j.retry.RetryRegistry;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,9 +16,10 @@ import java.time.Duration;
 @AllArgsConstructor
 public class CircuitBreakerConfiguration {
     private CircuitBreakerSettings circuitBreakerSettings;
-    private RetrySettings retrySettings;
+    private BulkheadSettings bulkheadSettings;
 
-    private CircuitBreakerRegistry circuitBreakerRegistry() {
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
         var config = CircuitBreakerConfig.custom()
                 .slidingWindowSize(circuitBreakerSettings.getSlidingWindowSize())
                 .failureRateThreshold(circuitBreakerSettings.getFailureRateThreshold())
@@ -29,36 +27,26 @@ public class CircuitBreakerConfiguration {
                         Duration.ofSeconds(circuitBreakerSettings.getWaitDurationInOpenState()))
                 .permittedNumberOfCallsInHalfOpenState(circuitBreakerSettings.getPermittedNumberOfCallsInHalfOpenState())
                 .automaticTransitionFromOpenToHalfOpenEnabled(circuitBreakerSettings.isAutomaticTransitionFromOpenToHalfOpenEnabled())
+                // Only 5xx and I/O failures say the hub is unhealthy. A 4xx is about the request or the seller
+                // (a bad payload, revoked keys, throttling) and must not open the seller's circuit.
+                .ignoreException(CircuitBreakerConfiguration::isClientError)
                 .build();
 
         return CircuitBreakerRegistry.of(config);
     }
 
-    private RetryRegistry retryRegistry() {
-        var config = RetryConfig.custom()
-                .maxAttempts(retrySettings.getMaxAttempts())
-                .waitDuration(Duration.ofSeconds(retrySettings.getWaitDuration())) // Exponential backoff
-                .retryOnException(ex -> {
-                    if (ex instanceof FeignException) {
-                        int statusCode = ((FeignException) ex).status();
-                        return statusCode == HttpURLConnection.HTTP_UNAUTHORIZED
-                                || statusCode < HttpURLConnection.HTTP_BAD_REQUEST
-                                || statusCode >= HttpURLConnection.HTTP_INTERNAL_ERROR;
-                    }
-                    return ex instanceof HttpRequestException;
-                })
-                .build();
-
-        return RetryRegistry.of(config);
+    private static boolean isClientError(Throwable throwable) {
+        return throwable instanceof FeignException.FeignClientException clientException
+                && clientException.status() != HttpURLConnection.HTTP_CLIENT_TIMEOUT;
     }
 
     @Bean
-    public CircuitBreaker circuitBreaker() {
-        return circuitBreakerRegistry().circuitBreaker("circuit-breaker-default");
-    }
+    public BulkheadRegistry bulkheadRegistry() {
+        var config = BulkheadConfig.custom()
+                .maxConcurrentCalls(bulkheadSettings.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(bulkheadSettings.getMaxWaitDuration()))
+                .build();
 
-    @Bean
-    public Retry retry() {
-        return retryRegistry().retry("retry-policy");
+        return BulkheadRegistry.of(config);
     }
 }
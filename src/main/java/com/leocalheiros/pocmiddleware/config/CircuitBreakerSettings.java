@@ -18,4 +18,5 @@ public class CircuitBreakerSettings {
     private int permittedNumberOfCallsInHalfOpenState;
     private boolean automaticTransitionFromOpenToHalfOpenEnabled;
     private List<Class<? extends Throwable>> recordException;
+    private int evictAfterIdle;
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.leocalheiros.pocmiddleware.config;
 
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import feign.Client;
+import feign.Request;
 import feign.RequestInterceptor;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class FeignConfig {
 
@@ -15,4 +24,36 @@ public class FeignConfig {
     public RequestInterceptor requestInterceptor() {
         return requestTemplate -> requestTemplate.header("App-Token", appToken);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public OkHttpClient hubHttpClient(UappiSettings uappiSettings) {
+        var http = uappiSettings.getHub().getHttp();
+        var builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(http.getMaxIdleConnections(), http.getKeepAlive(), TimeUnit.MILLISECONDS))
+                .connectTimeout(http.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(http.getReadTimeout(), TimeUnit.MILLISECONDS)
+                .protocols(http.isHttp2()
+                        ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : List.of(Protocol.HTTP_1_1));
+
+        if (http.isGzipRequests()) {
+            builder.addInterceptor(new GzipRequestInterceptor(http.getGzipMinSize()));
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    public Client feignClient(OkHttpClient hubHttpClient) {
+        return new feign.okhttp.OkHttpClient(hubHttpClient);
+    }
+
+    @Bean
+    public Request.Options requestOptions(UappiSettings uappiSettings) {
+        var http = uappiSettings.getHub().getHttp();
+        return new Request.Options(
+                http.getConnectTimeout(), TimeUnit.MILLISECONDS,
+                http.getReadTimeout(), TimeUnit.MILLISECONDS,
+                true);
+    }
+}
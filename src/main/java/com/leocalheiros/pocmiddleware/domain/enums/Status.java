@@ -1,5 +1,5 @@
 package com.leocalheiros.pocmiddleware.domain.enums;
 
 public enum Status {
-    PENDING, ERROR, DONE
+    PENDING, IN_PROGRESS, ERROR, DONE
 }
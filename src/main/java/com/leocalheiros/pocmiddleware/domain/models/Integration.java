@@ -7,6 +7,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,6 +16,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document(collection = "integration")
+@CompoundIndex(name = "type_status_documentNumber_createdAt", def = "{'type': 1, 'status': 1, 'documentNumber': 1, 'createdAt': 1}")
 public class Integration {
     @Id
     private ObjectId id;
@@ -30,8 +33,35 @@ public class Integration {
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt;
 
-    @Max(1000)
-    private String object = "";
+    private String leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+
+    private int attemptCount;
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Payload stored as an embedded document. Rows written before payloads were embedded hold a JSON string.
+     */
+    private Object object;
+
+    /**
+     * Id of the queue message the row was received from. Unique, so a message redelivered after a partially
+     * failed write is not stored twice.
+     */
+    @Indexed(name = "messageId_unique", unique = true, sparse = true)
+    private String messageId;
+
+    /**
+     * Size in bytes of the payload as received, used to keep outgoing batches under {@code maxBatchBytes}.
+     */
+    private int payloadSize;
+
+    /**
+     * Set when the row reaches {@code DONE} or {@code ERROR}, from the type's retention for that status. The TTL
+     * index deletes the row once this instant has passed; live rows leave it unset and are never expired.
+     */
+    @Indexed(name = "expireAt_ttl", expireAfter = "0s")
+    private LocalDateTime expireAt;
 
     @Max(1000)
     private String error;
@@ -4,12 +4,51 @@ import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 public class IntegrationParametersSettings {
     private String hash;
     private String queueName;
     private int timerPeriod;
+    private int maxIdlePeriod = 60000;
+
+    /**
+     * Relative share of the process-wide hub call slots this type gets while other types compete for them.
+     */
+    private int priority = 1;
+    private int maxInFlightTicks = 1;
     private IntegrationType type;
     private int batchLimit;
+    private int minBatchLimit = 10;
+    private int maxBatchBytes = 1048576;
+    private int targetLatency = 5000;
+    private int maxBatchesPerTick = 50;
+    private int maxConcurrentBatches = 16;
+    private int maxConcurrentBatchesPerSeller = 1;
+    private int leaseDuration = 120000;
+    private int maxConcurrentCalls = 8;
+    private int prefetchCount = 100;
+    private int ingestBatchSize = 100;
+    private int ingestLinger = 200;
+    private boolean directDispatch;
+    private int directLinger = 20;
+
+    /**
+     * Direct flushes a seller may have waiting behind the one being sent. Once reached, ingestion blocks until
+     * the hub catches up instead of buffering more messages in memory.
+     */
+    private int directMaxQueuedFlushes = 4;
+    private boolean coalesce;
+    private int maxAttempts = 10;
+    private int retryBaseDelay = 2000;
+    private int retryMaxDelay = 300000;
+
+    /**
+     * How long finished rows stay in the collection before the TTL monitor removes them. A zero or missing
+     * period keeps them forever.
+     */
+    private Duration doneRetention = Duration.ofDays(7);
+    private Duration errorRetention = Duration.ofDays(30);
 }
@@ -5,6 +5,10 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 @Getter
 @Setter
 @Configuration
@@ -15,4 +19,18 @@ public class IntegrationSettings {
     private IntegrationParametersSettings updateOrderStatus;
     private IntegrationParametersSettings updateRetailerCredit;
     private IntegrationParametersSettings saveRecommendationList;
+
+    /**
+     * Configured integrations by name, skipping the ones left out of the configuration.
+     */
+    public Map<String, IntegrationParametersSettings> entries() {
+        Map<String, IntegrationParametersSettings> entries = new LinkedHashMap<>();
+        entries.put("updateStock", updateStock);
+        entries.put("updateProductPrice", updateProductPrice);
+        entries.put("updateOrderStatus", updateOrderStatus);
+        entries.put("updateRetailerCredit", updateRetailerCredit);
+        entries.put("saveRecommendationList", saveRecommendationList);
+        entries.values().removeIf(Objects::isNull);
+        return entries;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.leocalheiros.pocmiddleware.domain.models.uappi;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HttpClientSettings {
+    private int connectTimeout = 5000;
+    private int readTimeout = 30000;
+    private int maxIdleConnections = 50;
+    private int keepAlive = 300000;
+    private boolean http2 = true;
+    private boolean gzipRequests;
+    private int gzipMinSize = 1024;
+}
@@ -0,0 +1,17 @@
+package com.leocalheiros.pocmiddleware.domain.models.uappi;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RateLimitSettings {
+    private double initialRate = 5;
+    private double minRate = 0.5;
+    private double maxRate = 50;
+    private double additiveIncrease = 0.5;
+    private double decreaseFactor = 0.5;
+    private int targetLatency = 2000;
+    private int maxWait = 5000;
+    private int defaultRetryAfter = 30;
+}
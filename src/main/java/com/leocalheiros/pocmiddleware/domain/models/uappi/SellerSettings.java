@@ -9,4 +9,5 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class SellerSettings {
     private SellerKeys keys;
+    private int weight = 1;
 }
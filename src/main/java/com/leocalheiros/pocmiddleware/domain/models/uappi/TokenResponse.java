@@ -1,5 +1,6 @@
 package com.leocalheiros.pocmiddleware.domain.models.uappi;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.*;
 
 @NoArgsConstructor
@@ -9,4 +10,7 @@ import lombok.*;
 @Setter
 public class TokenResponse {
     private String token;
+
+    @JsonAlias("expires_in")
+    private long expiresIn;
 }
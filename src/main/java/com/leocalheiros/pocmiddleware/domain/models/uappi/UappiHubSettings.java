@@ -10,5 +10,9 @@ import java.util.Map;
 public class UappiHubSettings {
     private String url;
     private String appToken;
+    private int tokenTtl = 3600;
+    private int tokenRefreshAhead = 300;
     private Map<String, SellerSettings> sellers;
+    private HttpClientSettings http = new HttpClientSettings();
+    private RateLimitSettings rateLimit = new RateLimitSettings();
 }
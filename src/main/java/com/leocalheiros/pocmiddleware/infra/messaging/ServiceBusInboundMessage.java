@@ -0,0 +1,40 @@
+package com.leocalheiros.pocmiddleware.infra.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
+import com.azure.messaging.servicebus.models.DeadLetterOptions;
+import com.leocalheiros.pocmiddleware.application.handlers.base.InboundMessage;
+
+record ServiceBusInboundMessage(ServiceBusReceivedMessageContext context) implements InboundMessage {
+
+    @Override
+    public String getMessageId() {
+        return context.getMessage().getMessageId();
+    }
+
+    @Override
+    public String getTo() {
+        return context.getMessage().getTo();
+    }
+
+    @Override
+    public byte[] getBody() {
+        return context.getMessage().getBody().toBytes();
+    }
+
+    @Override
+    public void complete() {
+        context.complete();
+    }
+
+    @Override
+    public void abandon() {
+        context.abandon();
+    }
+
+    @Override
+    public void deadLetter(String reason, String description) {
+        context.deadLetter(new DeadLetterOptions()
+                .setDeadLetterReason(reason)
+                .setDeadLetterErrorDescription(description));
+    }
+}
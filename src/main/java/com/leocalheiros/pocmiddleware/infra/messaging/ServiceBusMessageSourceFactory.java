@@ -0,0 +1,76 @@
+package com.leocalheiros.pocmiddleware.infra.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusClientBuilder;
+import com.azure.messaging.servicebus.ServiceBusErrorContext;
+import com.azure.messaging.servicebus.ServiceBusProcessorClient;
+import com.leocalheiros.pocmiddleware.application.handlers.base.InboundMessage;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSource;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSourceFactory;
+import com.leocalheiros.pocmiddleware.domain.models.AzureServiceBusSettings;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Azure Service Bus processors with auto-complete disabled, so handlers settle every message themselves. Every
+ * processor is built from the same {@link ServiceBusClientBuilder}, which makes them share one AMQP connection.
+ */
+@Component
+@Profile("!loadtest")
+public class ServiceBusMessageSourceFactory implements MessageSourceFactory {
+    private final ServiceBusClientBuilder sharedBuilder;
+
+    public ServiceBusMessageSourceFactory(AzureServiceBusSettings azureServiceBusSettings) {
+        this.sharedBuilder = new ServiceBusClientBuilder().connectionString(azureServiceBusSettings.getConnectionString());
+    }
+
+    @Override
+    public MessageSource create(IntegrationParametersSettings settings) {
+        return new ServiceBusMessageSource(sharedBuilder, settings);
+    }
+
+    private static final class ServiceBusMessageSource implements MessageSource {
+        private final Logger logger = LoggerFactory.getLogger(ServiceBusMessageSource.class);
+
+        private final ServiceBusClientBuilder sharedBuilder;
+        private final IntegrationParametersSettings settings;
+        private ServiceBusProcessorClient processorClient;
+
+        private ServiceBusMessageSource(ServiceBusClientBuilder sharedBuilder, IntegrationParametersSettings settings) {
+            this.sharedBuilder = sharedBuilder;
+            this.settings = settings;
+        }
+
+        @Override
+        public void start(Consumer<InboundMessage> handler) {
+            // The builder is not thread-safe and is shared by every processor
+            synchronized (sharedBuilder) {
+                processorClient = sharedBuilder
+                        .processor()
+                        .queueName(settings.getQueueName())
+                        .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                        .prefetchCount(settings.getPrefetchCount())
+                        .disableAutoComplete()
+                        .processMessage(context -> handler.accept(new ServiceBusInboundMessage(context)))
+                        .processError(this::errorHandler)
+                        .buildProcessorClient();
+            }
+            processorClient.start();
+        }
+
+        @Override
+        public void close() {
+            if (processorClient != null) {
+                processorClient.close();
+            }
+        }
+
+        private void errorHandler(ServiceBusErrorContext context) {
+            logger.error("Erro ao processar mensagem", context.getException());
+        }
+    }
+}
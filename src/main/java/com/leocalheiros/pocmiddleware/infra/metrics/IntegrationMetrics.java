@@ -0,0 +1,154 @@
+package com.leocalheiros.pocmiddleware.infra.metrics;
+
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.enums.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters for the integration pipeline, exposed on {@code /actuator/prometheus}. Each meter is registered on first
+ * use and kept in a map keyed by its tags, so recording on the hot path is a map lookup and never builds an id.
+ */
+@Component
+public class IntegrationMetrics {
+    private final MeterRegistry registry;
+    private final Map<BacklogKey, AtomicLong> backlog = new ConcurrentHashMap<>();
+    private final Map<IntegrationType, Counter> ingested = new ConcurrentHashMap<>();
+    private final Map<IntegrationType, DistributionSummary> batchSizes = new ConcurrentHashMap<>();
+    private final Map<LagKey, Timer> lags = new ConcurrentHashMap<>();
+    private final Map<RetryKey, Counter> retries = new ConcurrentHashMap<>();
+    private final Map<IntegrationType, Counter> skippedTicks = new ConcurrentHashMap<>();
+    private final Map<HubRequestKey, Timer> hubRequests = new ConcurrentHashMap<>();
+    private final Map<TransitionKey, Counter> transitions = new ConcurrentHashMap<>();
+    private final Map<String, Counter> tokenLookups = new ConcurrentHashMap<>();
+
+    public IntegrationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Publishes the pending rows per seller for {@code type}. Sellers that were reported before and are now
+     * absent drop to zero.
+     */
+    public void updateBacklog(IntegrationType type, Map<String, Long> pendingBySeller) {
+        backlog.forEach((key, value) -> {
+            if (key.type() == type && !pendingBySeller.containsKey(key.documentNumber())) value.set(0);
+        });
+        pendingBySeller.forEach((documentNumber, pending) -> backlog
+                .computeIfAbsent(new BacklogKey(type, documentNumber), this::registerBacklog)
+                .set(pending));
+    }
+
+    public void ingested(IntegrationType type, int count) {
+        ingested.computeIfAbsent(type, key -> Counter.builder("integration.ingested")
+                        .description("Integrations received from the queue")
+                        .tag("type", key.name())
+                        .register(registry))
+                .increment(count);
+    }
+
+    public void batchSize(IntegrationType type, int size) {
+        batchSizes.computeIfAbsent(type, key -> DistributionSummary.builder("integration.batch.size")
+                        .description("Items per request sent to the hub")
+                        .tag("type", key.name())
+                        .register(registry))
+                .record(size);
+    }
+
+    /**
+     * Time from an integration being received to it reaching a final status.
+     */
+    public void lag(IntegrationType type, Status status, Duration lag) {
+        lags.computeIfAbsent(new LagKey(type, status), key -> Timer.builder("integration.lag")
+                        .description("Time from receipt to DONE or ERROR")
+                        .tag("type", key.type().name())
+                        .tag("status", key.status().name())
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(lag);
+    }
+
+    public void retried(IntegrationType type, String reason) {
+        retries.computeIfAbsent(new RetryKey(type, reason), key -> Counter.builder("integration.retries")
+                        .description("Integrations rescheduled after a failed hub call")
+                        .tag("type", key.type().name())
+                        .tag("reason", key.reason())
+                        .register(registry))
+                .increment();
+    }
+
+    public void tickSkipped(IntegrationType type) {
+        skippedTicks.computeIfAbsent(type, key -> Counter.builder("integration.dispatch.skipped")
+                        .description("Batch ticks skipped because the type's dispatch lane was still busy")
+                        .tag("type", key.name())
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * Latency of an HTTP call that reached the hub. Calls refused locally are not hub requests and are not
+     * recorded here.
+     */
+    public void hubRequest(String endpoint, int statusCode, Duration latency) {
+        hubRequests.computeIfAbsent(new HubRequestKey(endpoint, statusCode), key -> Timer.builder("hub.requests")
+                        .description("Hub call latency")
+                        .tag("endpoint", key.endpoint())
+                        .tag("status", String.valueOf(key.statusCode()))
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(latency);
+    }
+
+    public void circuitBreakerTransition(String name, String fromState, String toState) {
+        transitions.computeIfAbsent(new TransitionKey(name, fromState, toState), key -> Counter.builder("hub.circuitbreaker.transitions")
+                        .description("Circuit breaker state transitions")
+                        .tag("name", key.name())
+                        .tag("from", key.fromState())
+                        .tag("to", key.toState())
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * Counts token lookups by the tier that served them: {@code memory}, {@code redis} or {@code hub}.
+     */
+    public void tokenLookup(String tier) {
+        tokenLookups.computeIfAbsent(tier, key -> Counter.builder("hub.token.lookups")
+                        .description("Hub token lookups by serving tier")
+                        .tag("tier", key)
+                        .register(registry))
+                .increment();
+    }
+
+    private AtomicLong registerBacklog(BacklogKey key) {
+        var value = new AtomicLong();
+        registry.gauge("integration.backlog",
+                Tags.of("type", key.type().name(), "documentNumber", key.documentNumber()),
+                value);
+        return value;
+    }
+
+    private record BacklogKey(IntegrationType type, String documentNumber) {
+    }
+
+    private record LagKey(IntegrationType type, Status status) {
+    }
+
+    private record RetryKey(IntegrationType type, String reason) {
+    }
+
+    private record HubRequestKey(String endpoint, int statusCode) {
+    }
+
+    private record TransitionKey(String name, String fromState, String toState) {
+    }
+}
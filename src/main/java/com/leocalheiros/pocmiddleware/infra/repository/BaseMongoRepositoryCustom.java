@@ -0,0 +1,57 @@
+package com.leocalheiros.pocmiddleware.infra.repository;
+
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.models.Integration;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface BaseMongoRepositoryCustom {
+    /**
+     * Returns the sellers with PENDING rows or expired leases, ordered by their oldest such row so the
+     * longest-waiting seller is started first. Pending sellers are read with a distinct scan of the
+     * {@code (type, status, documentNumber, createdAt)} index, so the cost grows with the number of sellers, not
+     * with the backlog. A seller whose pending rows are all backing off is still listed; its claim comes back empty.
+     */
+    List<String> findClaimableDocumentNumbers(IntegrationType type);
+
+    /**
+     * Returns at most {@code limit} claimed rows, oldest first, projected to the fields a batch needs.
+     * <p>
+     * Atomically moves up to {@code limit} claimable rows of a seller to {@code IN_PROGRESS}, leased to
+     * {@code owner} for {@code leaseDuration}. Rows are claimable while {@code PENDING} and due for their next
+     * attempt, or when a previous lease has expired, so a crashed replica never strands its rows.
+     */
+    List<Integration> claimBatch(IntegrationType type, String documentNumber, String owner, Duration leaseDuration, int limit);
+
+    /**
+     * Marks every row of a seller that a newer row with the same {@code object.<keyField>} value overtakes as
+     * {@code DONE} with {@code error}, so only the newest update per key is ever claimed. Only {@code PENDING}
+     * rows are superseded; leased rows are left to their owner. Returns the number of rows superseded.
+     */
+    long supersedePending(IntegrationType type, String documentNumber, String keyField, String error,
+                          LocalDateTime updatedAt, LocalDateTime expireAt);
+
+    /**
+     * Inserts received rows in one unordered bulk write. Rows whose {@code messageId} is already stored are
+     * skipped instead of failing the write, so re-inserting a redelivered micro-batch is idempotent.
+     */
+    void insertReceived(List<Integration> integrations);
+
+    /**
+     * Writes back only the dispatch outcome of claimed rows and releases their leases, in a single unordered
+     * bulk operation. Rows sharing the same outcome are folded into one {@code updateMulti} on their ids.
+     * Claimed rows are read with a projection, so they must never be persisted with a full-document {@code save}.
+     * <p>
+     * Only rows still leased to {@code owner} are written: if the lease expired and another cycle reclaimed a
+     * row, the new owner's state wins over this stale outcome.
+     */
+    void updateResults(List<Integration> integrations, String owner);
+
+    /**
+     * Counts rows not yet in a final status, grouped by seller.
+     */
+    Map<String, Long> countBacklog(IntegrationType type);
+}
@@ -0,0 +1,208 @@
+package com.leocalheiros.pocmiddleware.infra.repository;
+
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.enums.Status;
+import com.leocalheiros.pocmiddleware.domain.models.Integration;
+import lombok.AllArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@AllArgsConstructor
+public class BaseMongoRepositoryCustomImpl implements BaseMongoRepositoryCustom {
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final String[] BATCH_FIELDS = {"_id", "documentNumber", "type", "status", "createdAt", "attemptCount", "object", "payloadSize"};
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<String> findClaimableDocumentNumbers(IntegrationType type) {
+        // Sorting on the index suffix lets $group/$first run as a DISTINCT_SCAN, reading one key per seller
+        var pending = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("type").is(type).and("status").is(Status.PENDING)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "documentNumber", "createdAt")),
+                Aggregation.group("documentNumber").first("createdAt").as("oldest"));
+
+        // Only rows leased right now are IN_PROGRESS, so this set is bounded by in-flight batches
+        var expired = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("type").is(type)
+                        .and("status").is(Status.IN_PROGRESS)
+                        .and("leaseExpiresAt").lt(LocalDateTime.now())),
+                Aggregation.group("documentNumber").min("createdAt").as("oldest"));
+
+        Map<String, Date> oldestBySeller = new HashMap<>();
+        Stream.concat(
+                        mongoTemplate.aggregate(pending, Integration.class, Document.class).getMappedResults().stream(),
+                        mongoTemplate.aggregate(expired, Integration.class, Document.class).getMappedResults().stream())
+                .forEach(x -> oldestBySeller.merge(x.getString("_id"), x.getDate("oldest"),
+                        (a, b) -> a.before(b) ? a : b));
+
+        return oldestBySeller.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public List<Integration> claimBatch(IntegrationType type, String documentNumber, String owner, Duration leaseDuration, int limit) {
+        // Mongo stores dates with millisecond precision, truncating keeps the read-back filter exact
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        var leaseExpiresAt = now.plus(leaseDuration);
+
+        var candidatesQuery = new Query(claimable(Criteria.where("type").is(type).and("documentNumber").is(documentNumber), now))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(limit);
+        candidatesQuery.fields().include("_id");
+
+        List<ObjectId> candidateIds = mongoTemplate.find(candidatesQuery, Integration.class).stream()
+                .map(Integration::getId)
+                .toList();
+
+        if (candidateIds.isEmpty()) return List.of();
+
+        // The claimable filter is re-checked by the server, so a row raced by another replica is simply not matched
+        var claimQuery = new Query(claimable(Criteria.where("_id").in(candidateIds), now));
+        var claimUpdate = new Update()
+                .set("status", Status.IN_PROGRESS)
+                .set("leaseOwner", owner)
+                .set("leaseExpiresAt", leaseExpiresAt);
+
+        if (mongoTemplate.updateMulti(claimQuery, claimUpdate, Integration.class).getModifiedCount() == 0) {
+            return List.of();
+        }
+
+        var claimedQuery = new Query(Criteria.where("_id").in(candidateIds)
+                .and("status").is(Status.IN_PROGRESS)
+                .and("leaseOwner").is(owner)
+                .and("leaseExpiresAt").is(leaseExpiresAt))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        claimedQuery.fields().include(BATCH_FIELDS);
+
+        return mongoTemplate.find(claimedQuery, Integration.class);
+    }
+
+    @Override
+    public long supersedePending(IntegrationType type, String documentNumber, String keyField, String error,
+                                 LocalDateTime updatedAt, LocalDateTime expireAt) {
+        var keyPath = "object." + keyField;
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("type").is(type)
+                        .and("documentNumber").is(documentNumber)
+                        .and("status").in(Status.PENDING, Status.IN_PROGRESS)
+                        .and(keyPath).exists(true)),
+                // _id breaks createdAt ties, which happen for updates received in the same millisecond
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt", "_id")),
+                Aggregation.group(keyPath).first("_id").as("newestId").first("createdAt").as("newestCreatedAt")
+                        .count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+
+        var keys = mongoTemplate.aggregate(aggregation, Integration.class, Document.class).getMappedResults();
+        if (keys.isEmpty()) return 0;
+
+        var update = new Update()
+                .set("status", Status.DONE)
+                .set("batchId", 0L)
+                .set("updatedAt", updatedAt)
+                .set("error", error)
+                .set("expireAt", expireAt);
+
+        var bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Integration.class);
+        keys.forEach(x -> {
+            var newestCreatedAt = x.getDate("newestCreatedAt");
+            // Only rows older than the newest seen are superseded, so one received since the aggregation survives.
+            // Re-checking the status lets a row claimed since then keep its lease.
+            bulkOps.updateMulti(new Query(Criteria.where("type").is(type)
+                    .and("documentNumber").is(documentNumber)
+                    .and("status").is(Status.PENDING)
+                    .and(keyPath).is(x.get("_id"))
+                    .orOperator(
+                            Criteria.where("createdAt").lt(newestCreatedAt),
+                            Criteria.where("createdAt").is(newestCreatedAt).and("_id").lt(x.getObjectId("newestId")))),
+                    update);
+        });
+        return bulkOps.execute().getModifiedCount();
+    }
+
+    @Override
+    public void insertReceived(List<Integration> integrations) {
+        if (integrations.isEmpty()) return;
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Integration.class).insert(integrations).execute();
+        } catch (BulkOperationException e) {
+            // Duplicates are rows a previous attempt already wrote; any other error fails the whole micro-batch
+            if (!e.getErrors().stream().allMatch(x -> x.getCode() == DUPLICATE_KEY_ERROR)) throw e;
+        }
+    }
+
+    @Override
+    public void updateResults(List<Integration> integrations, String owner) {
+        if (integrations.isEmpty()) return;
+
+        Map<ResultKey, List<Integration>> byResult = integrations.stream()
+                .collect(Collectors.groupingBy(
+                        x -> new ResultKey(x.getStatus(), x.getBatchId(), x.getError(), x.getAttemptCount(), x.getNextAttemptAt(), x.getExpireAt()),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+
+        var bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Integration.class);
+        byResult.values().forEach(group -> {
+            var first = group.get(0);
+            var ids = group.stream().map(Integration::getId).toList();
+            var update = new Update()
+                    .set("status", first.getStatus())
+                    .set("batchId", first.getBatchId())
+                    .set("updatedAt", first.getUpdatedAt())
+                    .set("error", first.getError())
+                    .set("attemptCount", first.getAttemptCount())
+                    .set("nextAttemptAt", first.getNextAttemptAt())
+                    .set("expireAt", first.getExpireAt())
+                    .unset("leaseOwner")
+                    .unset("leaseExpiresAt");
+
+            bulkOps.updateMulti(new Query(Criteria.where("_id").in(ids).and("leaseOwner").is(owner)), update);
+        });
+        bulkOps.execute();
+    }
+
+    @Override
+    public Map<String, Long> countBacklog(IntegrationType type) {
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("type").is(type).and("status").in(Status.PENDING, Status.IN_PROGRESS)),
+                Aggregation.group("documentNumber").count().as("pending"));
+
+        return mongoTemplate.aggregate(aggregation, Integration.class, Document.class).getMappedResults().stream()
+                .collect(Collectors.toMap(x -> x.getString("_id"), x -> x.get("pending", Number.class).longValue()));
+    }
+
+    private record ResultKey(Status status, long batchId, String error, int attemptCount, LocalDateTime nextAttemptAt, LocalDateTime expireAt) {
+    }
+
+    private Criteria claimable(Criteria criteria, LocalDateTime now) {
+        return criteria.orOperator(
+                new Criteria().andOperator(
+                        Criteria.where("status").is(Status.PENDING),
+                        new Criteria().orOperator(
+                                Criteria.where("nextAttemptAt").is(null),
+                                Criteria.where("nextAttemptAt").lte(now))),
+                Criteria.where("status").is(Status.IN_PROGRESS).and("leaseExpiresAt").lt(now));
+    }
+}
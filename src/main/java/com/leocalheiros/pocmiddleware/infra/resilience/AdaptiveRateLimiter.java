@@ -0,0 +1,84 @@
+package com.leocalheiros.pocmiddleware.infra.resilience;
+
+import com.leocalheiros.pocmiddleware.domain.models.uappi.RateLimitSettings;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key request pacing with an AIMD rate: the allowed rate grows additively while calls complete under the
+ * target latency and is cut multiplicatively on slow calls and 429s. A 429 also blocks the key until the
+ * server's Retry-After has passed.
+ */
+public class AdaptiveRateLimiter {
+    private final RateLimitSettings settings;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public AdaptiveRateLimiter(RateLimitSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Reserves the next request slot for {@code key} and returns how long the caller must wait for it, or
+     * returns the wait without reserving anything when it would exceed {@code maxWait}.
+     */
+    public Reservation reserve(String key) {
+        var state = state(key);
+        long now = System.nanoTime();
+
+        synchronized (state) {
+            long slot = Math.max(now, Math.max(state.nextFreeAt, state.blockedUntil));
+            long wait = slot - now;
+
+            if (wait > Duration.ofMillis(settings.getMaxWait()).toNanos()) {
+                return new Reservation(false, Duration.ofNanos(wait));
+            }
+
+            state.nextFreeAt = slot + (long) (1_000_000_000L / state.rate);
+            return new Reservation(true, Duration.ofNanos(wait));
+        }
+    }
+
+    public void onSuccess(String key, Duration latency) {
+        var state = state(key);
+        synchronized (state) {
+            if (latency.toMillis() <= settings.getTargetLatency()) {
+                state.rate = Math.min(settings.getMaxRate(), state.rate + settings.getAdditiveIncrease());
+            } else {
+                decrease(state);
+            }
+        }
+    }
+
+    public void onThrottled(String key, Duration retryAfter) {
+        var state = state(key);
+        var blockFor = retryAfter.isZero() ? Duration.ofSeconds(settings.getDefaultRetryAfter()) : retryAfter;
+
+        synchronized (state) {
+            decrease(state);
+            state.blockedUntil = Math.max(state.blockedUntil, System.nanoTime() + blockFor.toNanos());
+        }
+    }
+
+    private void decrease(State state) {
+        state.rate = Math.max(settings.getMinRate(), state.rate * settings.getDecreaseFactor());
+    }
+
+    private State state(String key) {
+        return states.computeIfAbsent(key, k -> new State(settings.getInitialRate()));
+    }
+
+    public record Reservation(boolean granted, Duration delay) {
+    }
+
+    private static final class State {
+        private double rate;
+        private long nextFreeAt = Long.MIN_VALUE;
+        private long blockedUntil = Long.MIN_VALUE;
+
+        private State(double rate) {
+            this.rate = rate;
+        }
+    }
+}
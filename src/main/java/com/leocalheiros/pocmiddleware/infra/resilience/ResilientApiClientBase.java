@@ -1,116 +1,144 @@
 package com.leocalheiros.pocmiddleware.infra.resilience;
 
-import com.azure.core.exception.HttpRequestException;
 import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
-import io.github.resilience4j.core.IntervalFunction;
-import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.vavr.control.Try;
-import lombok.AllArgsConstructor;
-import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import java.net.HttpURLConnection;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
-import static io.vavr.API.println;
-
-@Service
-@AllArgsConstructor
+/**
+ * Resilience decorators for outbound API calls. Circuit breakers and bulkheads are looked up per resilience
+ * key (seller and endpoint), created lazily from the default configuration and evicted once idle, so one
+ * failing seller only opens its own circuit.
+ */
 public abstract class ResilientApiClientBase {
-    protected Retry retryPolicy;
-    protected CircuitBreaker circuitBreaker;
-    protected CircuitBreaker circuitBreakerHalfOpen;
-    private int halfOpenFailures;
+    protected CircuitBreakerRegistry circuitBreakerRegistry;
+    protected BulkheadRegistry bulkheadRegistry;
+    private final IntegrationMetrics metrics;
+    private final Duration evictAfterIdle;
+    private final Logger logger = LoggerFactory.getLogger(ResilientApiClientBase.class);
+    private final Map<String, Instant> lastUsed = new ConcurrentHashMap<>();
 
     protected ResilientApiClientBase(
-            CircuitBreaker circuitBreaker,
-            CircuitBreaker circuitBreakerHalfOpen,
-            Retry retryPolicy)
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            IntegrationMetrics metrics,
+            Duration evictAfterIdle)
     {
-        this.circuitBreaker = circuitBreaker;
-        this.circuitBreakerHalfOpen = circuitBreakerHalfOpen;
-        this.retryPolicy = retryPolicy;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.metrics = metrics;
+        this.evictAfterIdle = evictAfterIdle;
 
-        createRetryPolicy();
         createCircuitBreakerPolicy();
-        createHalfOpenPolicy();
     }
 
-    private void createRetryPolicy() {
-        retryPolicy.getEventPublisher().onRetry(event ->
-                println(getDatetimeNow() + " - Attempt " + event.getNumberOfRetryAttempts() +
-                        " failed. Retrying in " + event.getWaitInterval().getSeconds() +
-                        " seconds..."));
+    protected static String resilienceKey(String documentNumber, String endpoint) {
+        return documentNumber + ":" + endpoint;
     }
 
     private void createCircuitBreakerPolicy() {
-        circuitBreaker.getEventPublisher()
-                .onStateTransition(event -> {
-                    if (event.getStateTransition() == CircuitBreaker.StateTransition.CLOSED_TO_OPEN) {
-                        onBreak(circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState());
-                    } else if (event.getStateTransition() == CircuitBreaker.StateTransition.OPEN_TO_HALF_OPEN) {
-                        onHalfOpen();
-                    } else if (event.getStateTransition() == CircuitBreaker.StateTransition.HALF_OPEN_TO_CLOSED) {
-                        onReset();
-                    }
+        circuitBreakerRegistry.getEventPublisher()
+                .onEntryAdded(added -> {
+                    var circuitBreaker = added.getAddedEntry();
+                    circuitBreaker.getEventPublisher()
+                            .onStateTransition(event -> {
+                                var transition = event.getStateTransition();
+                                metrics.circuitBreakerTransition(circuitBreaker.getName(),
+                                        transition.getFromState().name(), transition.getToState().name());
+
+                                if (transition.getToState() == CircuitBreaker.State.OPEN) {
+                                    logger.warn("Circuit {} opened after failures ({})", circuitBreaker.getName(), transition);
+                                }
+                            });
                 });
     }
 
-    private void createHalfOpenPolicy() {
-        circuitBreakerHalfOpen.getEventPublisher()
-                .onStateTransition(event -> {
-                    if (event.getStateTransition() == CircuitBreaker.StateTransition.OPEN_TO_HALF_OPEN) {
-                        if (halfOpenFailures < 1) return;
-                        println(getDatetimeNow() + " - Half-Open circuit failed " + halfOpenFailures + " times and will be reopened.");
-                    }
-                });
-    }
+    /**
+     * Removes breakers and bulkheads that have been idle for {@code evictAfterIdle}. Breakers that are not
+     * closed are kept, so an isolated seller stays isolated until it recovers.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        var threshold = Instant.now().minus(evictAfterIdle);
 
-    private void onBreak(IntervalFunction duration) {
-        var waitDurationInMillis = duration.apply(1);
-        var waitDurationInSeconds = Duration.ofMillis(waitDurationInMillis).getSeconds();
-        println(getDatetimeNow() + " - Circuit opened for " + waitDurationInSeconds + " seconds due to failures.");
-    }
+        lastUsed.forEach((key, used) -> {
+            if (used.isAfter(threshold)) return;
 
-    private void onReset() {
-        println(getDatetimeNow() + " - Circuit closed again, operating normally.");
-        halfOpenFailures = 0;
-    }
+            var circuitBreaker = circuitBreakerRegistry.find(key);
+            if (circuitBreaker.isPresent() && circuitBreaker.get().getState() != CircuitBreaker.State.CLOSED) return;
 
-    private void onHalfOpen() {
-        println(getDatetimeNow() + " - Circuit in Half-Open state, testing connectivity...");
-        halfOpenFailures = 0;
+            if (lastUsed.remove(key, used)) {
+                circuitBreakerRegistry.remove(key);
+                bulkheadRegistry.remove(key);
+            }
+        });
     }
 
-    protected <T> T executeWithResilience(Supplier<T> action) {
-        var decorated = Retry.decorateCallable(retryPolicy,
-                CircuitBreaker.decorateCallable(circuitBreaker,
-                        CircuitBreaker.decorateCallable(circuitBreakerHalfOpen, action::get)
-                ));
+    protected <T> T executeWithResilience(String key, Supplier<T> action) {
+        lastUsed.put(key, Instant.now());
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker(key);
+        var bulkhead = bulkheadRegistry.bulkhead(key);
+
+        // The bulkhead wraps the breaker so a saturated seller is rejected without counting as a hub failure.
+        // Failed calls are not retried in-thread: the batch handler reschedules the rows with a durable backoff.
+        var decorated = Bulkhead.decorateCallable(bulkhead,
+                CircuitBreaker.decorateCallable(circuitBreaker, action::get));
 
         return Try.ofCallable(decorated)
-                .getOrElseThrow(throwable -> new RuntimeException(getDatetimeNow() + " - Operation failed after retries"));
+                .getOrElseThrow(throwable -> new RuntimeException(getDatetimeNow() + " - Operation failed", throwable));
+    }
+
+    /**
+     * Sends the request with whatever credentials are cached and, on a 401, runs {@code onUnauthorized} to drop
+     * them and replays the request exactly once. The recovery happens inside the resilience decorators, so the
+     * first 401 does not count as a circuit-breaker failure.
+     */
+    public <T extends DefaultResponse> T executeGenericHandling(String key, Supplier<T> action, Runnable onUnauthorized) {
+        return executeGenericHandling(key, () -> {
+            try {
+                return action.get();
+            } catch (FeignException.Unauthorized e) {
+                onUnauthorized.run();
+                return action.get();
+            }
+        });
     }
 
-    public <T extends DefaultResponse> T executeGenericHandling(Supplier<T> action) {
+    public <T extends DefaultResponse> T executeGenericHandling(String key, Supplier<T> action) {
         try {
-            return executeWithResilience(action);
+            return executeWithResilience(key, action);
         } catch (Exception ex) {
-            println(ex.getMessage());
-
             var innerEx = ex.getCause() != null ? ex.getCause() : ex;
             T response = (T) new DefaultResponse();
             response.setId(-1);
 
-            if (innerEx instanceof FeignException feignException) {
+            if (innerEx instanceof CallNotPermittedException || innerEx instanceof BulkheadFullException) {
+                response.setError(innerEx.getMessage());
+                response.setStatusCode(HttpURLConnection.HTTP_UNAVAILABLE);
+                response.setRejectedLocally(true);
+                response.setRetryAfter(openStateSeconds(innerEx));
+            } else if (innerEx instanceof FeignException feignException) {
                 response.setError(feignException.getMessage());
                 response.setStatusCode(feignException.status());
+                response.setRetryAfter(retryAfterSeconds(feignException));
             } else {
                 response.setError(innerEx.getMessage());
                 response.setStatusCode(HttpURLConnection.HTTP_INTERNAL_ERROR);
@@ -119,6 +147,34 @@ public abstract class ResilientApiClientBase {
         }
     }
 
+    /**
+     * How long an open circuit refuses calls, so rows refused by it are not claimed again before it half-opens.
+     */
+    private long openStateSeconds(Throwable rejection) {
+        if (!(rejection instanceof CallNotPermittedException callNotPermitted)) return 0;
+
+        return circuitBreakerRegistry.find(callNotPermitted.getCausingCircuitBreakerName())
+                .map(x -> x.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1))
+                .map(millis -> Math.max(1, millis / 1000))
+                .orElse(0L);
+    }
+
+    /**
+     * Reads the delay-seconds form of {@code Retry-After}; HTTP-date values and missing headers yield 0.
+     */
+    private static long retryAfterSeconds(FeignException feignException) {
+        var values = feignException.responseHeaders().entrySet().stream()
+                .filter(header -> "retry-after".equalsIgnoreCase(header.getKey()))
+                .flatMap(header -> header.getValue().stream())
+                .findFirst();
+
+        try {
+            return values.map(String::trim).map(Long::parseLong).orElse(0L);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private String getDatetimeNow() {
         LocalDateTime now = LocalDateTime.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/M/yyyy HH:mm:ss");
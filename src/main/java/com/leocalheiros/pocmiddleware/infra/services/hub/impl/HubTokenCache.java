@@ -0,0 +1,164 @@
+package com.leocalheiros.pocmiddleware.infra.services.hub.impl;
+
+import com.leocalheiros.pocmiddleware.domain.models.uappi.TokenResponse;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-seller hub tokens cached in process in front of Redis. Tokens are refreshed in the background once
+ * they are within {@code tokenRefreshAhead} seconds of expiring, and concurrent callers for the same seller
+ * share a single in-flight refresh.
+ */
+@Component
+public class HubTokenCache {
+    private static final String KEY_PREFIX = "token_hub_";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final RedisScript<Long> DELETE_IF_EQUALS = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final Logger logger = LoggerFactory.getLogger(HubTokenCache.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IntegrationMetrics metrics;
+    private final Duration defaultTtl;
+    private final Duration refreshAhead;
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedToken>> refreshes = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HubTokenCache(StringRedisTemplate redisTemplate, UappiSettings uappiSettings, IntegrationMetrics metrics) {
+        this.redisTemplate = redisTemplate;
+        this.metrics = metrics;
+        this.defaultTtl = Duration.ofSeconds(uappiSettings.getHub().getTokenTtl());
+        this.refreshAhead = Duration.ofSeconds(uappiSettings.getHub().getTokenRefreshAhead());
+    }
+
+    /**
+     * Returns the {@code Authorization} header value for the seller, loading a token through {@code loader}
+     * only when neither cache tier holds a usable one.
+     */
+    public String get(String documentNumber, Supplier<TokenResponse> loader) {
+        var now = Instant.now();
+        var cached = tokens.get(documentNumber);
+
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            if (!now.isBefore(cached.expiresAt().minus(refreshAhead))) {
+                refreshExecutor.execute(() -> refresh(documentNumber, loader));
+            }
+            metrics.tokenLookup("memory");
+            return cached.header();
+        }
+
+        try {
+            return refresh(documentNumber, loader).join().header();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the seller's token after the hub refused {@code staleHeader}, but only while that is still the cached
+     * token. When several calls get a 401 for the same token, the first one drops it and the others keep the
+     * token a concurrent caller has already loaded in its place.
+     */
+    public void invalidate(String documentNumber, String staleHeader) {
+        if (staleHeader == null) return;
+
+        tokens.computeIfPresent(documentNumber, (key, cached) -> cached.header().equals(staleHeader) ? null : cached);
+        try {
+            redisTemplate.execute(DELETE_IF_EQUALS, List.of(KEY_PREFIX + documentNumber),
+                    staleHeader.substring(BEARER_PREFIX.length()));
+        } catch (Exception e) {
+            logger.warn("Could not delete cached hub token for seller {}: {}", documentNumber, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    private CompletableFuture<CachedToken> refresh(String documentNumber, Supplier<TokenResponse> loader) {
+        var created = new CompletableFuture<CachedToken>();
+        var inFlight = refreshes.putIfAbsent(documentNumber, created);
+        if (inFlight != null) return inFlight;
+
+        try {
+            // A refresh that finished between the caller's lookup and this one has already stored a fresh token
+            var cached = tokens.get(documentNumber);
+            var token = cached != null && Instant.now().isBefore(cached.expiresAt().minus(refreshAhead))
+                    ? cached
+                    : load(documentNumber, loader);
+            tokens.put(documentNumber, token);
+            created.complete(token);
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+        } finally {
+            refreshes.remove(documentNumber, created);
+        }
+        return created;
+    }
+
+    private CachedToken load(String documentNumber, Supplier<TokenResponse> loader) {
+        var key = KEY_PREFIX + documentNumber;
+
+        var shared = readRedis(key);
+        if (shared != null) {
+            metrics.tokenLookup("redis");
+            return shared;
+        }
+
+        metrics.tokenLookup("hub");
+        var tokenResponse = loader.get();
+        if (tokenResponse == null || tokenResponse.getToken() == null) {
+            throw new IllegalStateException("Hub returned no token for seller " + documentNumber);
+        }
+
+        var ttl = tokenResponse.getExpiresIn() > 0 ? Duration.ofSeconds(tokenResponse.getExpiresIn()) : defaultTtl;
+        try {
+            redisTemplate.opsForValue().set(key, tokenResponse.getToken(), ttl);
+        } catch (Exception e) {
+            logger.warn("Could not store hub token for seller {}: {}", documentNumber, e.getMessage());
+        }
+        return new CachedToken(BEARER_PREFIX + tokenResponse.getToken(), Instant.now().plus(ttl));
+    }
+
+    private CachedToken readRedis(String key) {
+        try {
+            var token = redisTemplate.opsForValue().get(key);
+            if (token == null) return null;
+
+            // Keys without a TTL were written before expiry was tracked and cannot be trusted
+            Long ttlSeconds = redisTemplate.getExpire(key, TimeUnit.SECONDS);
+            if (ttlSeconds == null || ttlSeconds <= refreshAhead.getSeconds()) return null;
+
+            return new CachedToken(BEARER_PREFIX + token, Instant.now().plusSeconds(ttlSeconds));
+        } catch (Exception e) {
+            logger.warn("Could not read hub token from Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record CachedToken(String header, Instant expiresAt) {
+    }
+}
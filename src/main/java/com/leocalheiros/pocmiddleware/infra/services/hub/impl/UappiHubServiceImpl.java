@@ -2,80 +2,92 @@ package com.leocalheiros.pocmiddleware.infra.services.hub.impl;
 
 import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
 import com.leocalheiros.pocmiddleware.application.dtos.responses.UpdateProductPriceResponse;
+import com.leocalheiros.pocmiddleware.config.CircuitBreakerSettings;
 import com.leocalheiros.pocmiddleware.domain.models.AuthorizationToken;
 import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
 import com.leocalheiros.pocmiddleware.infra.resilience.ResilientApiClientBase;
 import com.leocalheiros.pocmiddleware.infra.services.hub.UappiHubService;
-import feign.FeignException;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
 @Service
 public class UappiHubServiceImpl extends ResilientApiClientBase {
     private final UappiHubService uappiHubService;
-    private final StringRedisTemplate redisTemplate;
+    private final HubTokenCache hubTokenCache;
     private final UappiSettings uappiSettings;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final IntegrationMetrics metrics;
+
     private final Logger logger = LoggerFactory.getLogger(UappiHubServiceImpl.class);
 
-    public UappiHubServiceImpl(CircuitBreaker circuitBreaker,
-                               CircuitBreaker circuiteBreakerHalfOpen,
-                               Retry retryPolicy,
+    public UappiHubServiceImpl(CircuitBreakerRegistry circuitBreakerRegistry,
+                               BulkheadRegistry bulkheadRegistry,
+                               CircuitBreakerSettings circuitBreakerSettings,
                                UappiHubService uappiHubService,
-                               StringRedisTemplate redisTemplate,
-                               UappiSettings uappiSettings) {
-        super(circuitBreaker, circuiteBreakerHalfOpen, retryPolicy);
+                               HubTokenCache hubTokenCache,
+                               UappiSettings uappiSettings,
+                               IntegrationMetrics metrics) {
+        super(circuitBreakerRegistry, bulkheadRegistry, metrics,
+                Duration.ofSeconds(circuitBreakerSettings.getEvictAfterIdle()));
 
         this.uappiHubService = uappiHubService;
-        this.redisTemplate = redisTemplate;
+        this.hubTokenCache = hubTokenCache;
         this.uappiSettings = uappiSettings;
+        this.metrics = metrics;
+        this.rateLimiter = new AdaptiveRateLimiter(uappiSettings.getHub().getRateLimit());
+    }
+
+    /**
+     * Reserves the seller's next hub call. Callers wait out the returned delay before taking a dispatch slot and
+     * calling the hub, so pacing never holds a slot.
+     */
+    public AdaptiveRateLimiter.Reservation reserve(String documentNumber) {
+        return rateLimiter.reserve(documentNumber);
     }
 
     public DefaultResponse updateProductPrice(UpdateProductPriceResponse payload, String documentNumber) {
-        return executeGenericHandling(() -> {
+        // Timed from just before the HTTP call, so token lookups and resilience bookkeeping are left out
+        var httpStarted = new AtomicReference<Long>();
+        var sentToken = new AtomicReference<String>();
+        var response = executeGenericHandling(resilienceKey(documentNumber, "price-batch"), () -> {
             var token = getToken(documentNumber);
+            sentToken.set(token);
+            httpStarted.set(System.nanoTime());
             return uappiHubService.updateProductPrice(token, payload);
-        });
-    }
+        }, () -> hubTokenCache.invalidate(documentNumber, sentToken.get()));
 
-    public String getToken(String documentNumber) {
-        var key = "token_hub_" + documentNumber;
-        ValueOperations<String, String> ops = redisTemplate.opsForValue();
+        if (response.isRejectedLocally() || httpStarted.get() == null) return response;
 
-        var token = ops.get(key);
-        if (token != null) {
-            validateToken(documentNumber, token, key);
+        var latency = Duration.ofNanos(System.nanoTime() - httpStarted.get());
+        metrics.hubRequest("price-batch", response.getId() >= 0 ? HttpURLConnection.HTTP_OK : response.getStatusCode(), latency);
+
+        if (response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            rateLimiter.onThrottled(documentNumber, Duration.ofSeconds(response.getRetryAfter()));
+        } else if (response.getId() >= 0) {
+            rateLimiter.onSuccess(documentNumber, latency);
         }
+        return response;
+    }
 
+    public String getToken(String documentNumber) {
         var sellerSettings = uappiSettings.getHub().getSellers().get(documentNumber);
         if (sellerSettings == null) {
             logger.warn("Configuração do seller não encontrada para o documento: {}", documentNumber);
             return null;
         }
 
-        var tokenPayload = new AuthorizationToken(sellerSettings.getKeys().getApiKey(),
-                sellerSettings.getKeys().getSecretKey());
-        var tokenResponse = uappiHubService.getToken(tokenPayload);
-        if (tokenResponse == null) {
-            return "";
-        }
-
-        ops.set(key, tokenResponse.getToken());
-        logger.info("Token obtido: {}", tokenResponse.getToken());
-        return "Bearer " + tokenResponse.getToken();
-    }
-
-    private void validateToken(String documentNumber, String token, String redisKey) {
-        try {
-            uappiHubService.validateToken(token);
-        } catch (FeignException.Unauthorized e) {
-            redisTemplate.delete(redisKey);
-            getToken(documentNumber);
-        }
+        return hubTokenCache.get(documentNumber, () -> uappiHubService.getToken(new AuthorizationToken(
+                sellerSettings.getKeys().getApiKey(),
+                sellerSettings.getKeys().getSecretKey())));
     }
 }
-
@@ -0,0 +1,48 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.application.handlers.base.AdaptiveBatchSizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveBatchSizerTest {
+
+    private AdaptiveBatchSizer batchSizer;
+
+    @BeforeEach
+    void setUp() {
+        batchSizer = new AdaptiveBatchSizer(10, 100, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testRecord_ShouldShrinkToMinimum_WhenHubIsSlowOrTimesOut() {
+        // Act
+        batchSizer.record("123", 100, Duration.ofSeconds(8), false);
+        batchSizer.record("123", 50, Duration.ofSeconds(1), true);
+        batchSizer.record("123", 25, Duration.ofSeconds(1), true);
+
+        // Assert
+        assertEquals(12, batchSizer.limit("123"));
+        batchSizer.record("123", 12, Duration.ofSeconds(30), true);
+        assertEquals(10, batchSizer.limit("123"));
+        assertEquals(100, batchSizer.limit("456"));
+    }
+
+    @Test
+    void testRecord_ShouldGrowOnlyAfterFastFullBatches() {
+        // Arrange
+        batchSizer.record("123", 100, Duration.ofSeconds(8), false);
+
+        // Act
+        batchSizer.record("123", 20, Duration.ofMillis(100), false);
+        int afterPartialBatch = batchSizer.limit("123");
+        batchSizer.record("123", 50, Duration.ofMillis(100), false);
+
+        // Assert
+        assertEquals(50, afterPartialBatch);
+        assertEquals(62, batchSizer.limit("123"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.domain.models.uappi.RateLimitSettings;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveRateLimiterTest {
+
+    private AdaptiveRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        var settings = new RateLimitSettings();
+        settings.setInitialRate(10);
+        settings.setMaxWait(1000);
+        rateLimiter = new AdaptiveRateLimiter(settings);
+    }
+
+    @Test
+    void testReserve_ShouldPaceRequests_ToCurrentRate() {
+        // Act
+        var first = rateLimiter.reserve("123");
+        var second = rateLimiter.reserve("123");
+
+        // Assert
+        assertTrue(first.granted());
+        assertEquals(Duration.ZERO, first.delay());
+        assertTrue(second.granted());
+        assertTrue(second.delay().toMillis() > 50);
+    }
+
+    @Test
+    void testReserve_ShouldRefuse_WhileSellerIsThrottled() {
+        // Arrange
+        rateLimiter.onThrottled("123", Duration.ofSeconds(30));
+
+        // Act
+        var throttled = rateLimiter.reserve("123");
+        var other = rateLimiter.reserve("456");
+
+        // Assert
+        assertFalse(throttled.granted());
+        assertTrue(throttled.delay().toSeconds() >= 29);
+        assertTrue(other.granted());
+    }
+}
@@ -0,0 +1,75 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.config.BulkheadSettings;
+import com.leocalheiros.pocmiddleware.config.CircuitBreakerConfiguration;
+import com.leocalheiros.pocmiddleware.config.CircuitBreakerSettings;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CircuitBreakerConfigurationTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        var circuitBreakerSettings = new CircuitBreakerSettings();
+        circuitBreakerSettings.setSlidingWindowSize(3);
+        circuitBreakerSettings.setFailureRateThreshold(60);
+        circuitBreakerSettings.setWaitDurationInOpenState(60);
+        circuitBreakerSettings.setPermittedNumberOfCallsInHalfOpenState(3);
+
+        circuitBreakerRegistry = new CircuitBreakerConfiguration(circuitBreakerSettings, new BulkheadSettings())
+                .circuitBreakerRegistry();
+    }
+
+    @Test
+    void testCircuitBreaker_ShouldStayClosed_WhenHubRejectsPayloads() {
+        // Arrange
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("123:price-batch");
+
+        // Act
+        for (int status : new int[]{400, 400, 403, 404, 422}) {
+            call(circuitBreaker, status);
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testCircuitBreaker_ShouldOpen_WhenHubFailsWithServerErrors() {
+        // Arrange
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("123:price-batch");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            call(circuitBreaker, 503);
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private static void call(CircuitBreaker circuitBreaker, int status) {
+        var request = Request.create(Request.HttpMethod.POST, "/precos", Map.of(), null, StandardCharsets.UTF_8, null);
+        var response = Response.builder().status(status).reason("error").request(request).headers(Map.of()).build();
+        var exception = FeignException.errorStatus("updateProductPrice", response);
+
+        try {
+            circuitBreaker.executeSupplier(() -> {
+                throw exception;
+            });
+        } catch (FeignException ignored) {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.application.handlers.base.DispatchScheduler;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DispatchSchedulerTest {
+
+    private ScheduledExecutorService timer;
+    private DispatchScheduler dispatchScheduler;
+
+    @BeforeEach
+    void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+        dispatchScheduler = new DispatchScheduler(timer, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatchScheduler.shutdown();
+        timer.shutdown();
+    }
+
+    @Test
+    void testTryRun_ShouldSkipTick_WhenLaneIsStillRunning() throws InterruptedException {
+        // Arrange
+        var lane = dispatchScheduler.lane(IntegrationType.STOCKUPDATE, 1, 1);
+        var release = new CountDownLatch(1);
+        var secondRan = new CountDownLatch(1);
+
+        // Act
+        var first = lane.tryRun(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lane.release();
+            }
+        });
+        var skipped = lane.tryRun(secondRan::countDown);
+        release.countDown();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(skipped);
+        assertFalse(secondRan.await(100, TimeUnit.MILLISECONDS));
+        assertSame(lane, dispatchScheduler.lane(IntegrationType.STOCKUPDATE, 1, 4));
+    }
+
+    @Test
+    void testTryRun_ShouldRunOtherLane_WhileSlowLaneIsBusy() throws InterruptedException {
+        // Arrange
+        var stockLane = dispatchScheduler.lane(IntegrationType.STOCKUPDATE, 1, 1);
+        var orderStatusLane = dispatchScheduler.lane(IntegrationType.UPDATEORDERSTATUS, 1, 1);
+        var release = new CountDownLatch(1);
+        var orderStatusRan = new CountDownLatch(1);
+
+        stockLane.tryRun(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stockLane.release();
+            }
+        });
+
+        // Act
+        var started = orderStatusLane.tryRun(() -> {
+            orderStatusRan.countDown();
+            orderStatusLane.release();
+        });
+
+        // Assert
+        assertTrue(started);
+        assertTrue(orderStatusRan.await(1, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testAcquireCall_ShouldFavourHigherPriorityLane_WhenLanesCompeteForCalls() throws InterruptedException {
+        // Arrange
+        var stockLane = dispatchScheduler.lane(IntegrationType.STOCKUPDATE, 1, 1);
+        var orderStatusLane = dispatchScheduler.lane(IntegrationType.UPDATEORDERSTATUS, 4, 1);
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        stockLane.acquireCall();
+
+        var stockWaiting = waitForCall(stockLane, "stock", granted);
+        Thread.sleep(50);
+        var orderStatusWaiting = waitForCall(orderStatusLane, "orderStatus", granted);
+        Thread.sleep(50);
+
+        // Act
+        stockLane.releaseCall();
+
+        // Assert
+        assertTrue(orderStatusWaiting.await(1, TimeUnit.SECONDS));
+        assertTrue(stockWaiting.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("orderStatus", "stock"), granted);
+    }
+
+    private static CountDownLatch waitForCall(DispatchScheduler.Lane lane, String name, List<String> granted) {
+        var acquired = new CountDownLatch(1);
+        Thread.ofVirtual().start(() -> {
+            try {
+                lane.acquireCall();
+                granted.add(name);
+                acquired.countDown();
+                lane.releaseCall();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return acquired;
+    }
+}
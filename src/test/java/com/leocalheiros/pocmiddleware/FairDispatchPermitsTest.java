@@ -0,0 +1,77 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.application.handlers.base.FairDispatchPermits;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FairDispatchPermitsTest {
+
+    @Test
+    void testAcquire_ShouldServeSmallSellerBeforeLargeSellersNextBatch() throws InterruptedException {
+        // Arrange
+        var permits = new FairDispatchPermits(1, documentNumber -> 1);
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        permits.acquire("large", 100);
+
+        var largeWaiting = waitFor(permits, "large", 100, granted);
+        var smallWaiting = waitFor(permits, "small", 1, granted);
+        Thread.sleep(100);
+
+        // Act
+        permits.release("large");
+
+        // Assert
+        assertTrue(smallWaiting.await(1, TimeUnit.SECONDS));
+        assertTrue(largeWaiting.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("small", "large"), granted);
+    }
+
+    @Test
+    void testAcquire_ShouldGrantSlotsInProportionToWeight() throws InterruptedException {
+        // Arrange
+        var permits = new FairDispatchPermits(1, documentNumber -> documentNumber.equals("heavy") ? 2 : 1);
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        List<CountDownLatch> acquired = new ArrayList<>();
+        permits.acquire("blocker", 1);
+
+        for (int i = 0; i < 6; i++) {
+            acquired.add(waitFor(permits, "heavy", 10, granted));
+            acquired.add(waitFor(permits, "light", 10, granted));
+        }
+        Thread.sleep(100);
+
+        // Act
+        permits.release("blocker");
+
+        // Assert
+        for (var latch : acquired) {
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+        }
+        var firstNine = granted.subList(0, 9);
+        assertEquals(6, Collections.frequency(firstNine, "heavy"));
+        assertEquals(3, Collections.frequency(firstNine, "light"));
+    }
+
+    private static CountDownLatch waitFor(FairDispatchPermits permits, String seller, int cost, List<String> granted) {
+        var acquired = new CountDownLatch(1);
+        Thread.ofVirtual().start(() -> {
+            try {
+                permits.acquire(seller, cost);
+                granted.add(seller);
+                acquired.countDown();
+                permits.release(seller);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return acquired;
+    }
+}
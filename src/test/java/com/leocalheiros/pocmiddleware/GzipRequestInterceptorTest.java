@@ -0,0 +1,100 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.config.GzipRequestInterceptor;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class GzipRequestInterceptorTest {
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final GzipRequestInterceptor interceptor = new GzipRequestInterceptor(16);
+    private Interceptor.Chain chain;
+
+    @BeforeEach
+    void setUp() {
+        chain = mock(Interceptor.Chain.class);
+    }
+
+    @Test
+    void testIntercept_ShouldSendBodyAsIs_WhenSmallerThanMinSize() throws IOException {
+        // Arrange
+        var request = request("{\"sku\":\"1\"}");
+        when(chain.request()).thenReturn(request);
+
+        // Act
+        interceptor.intercept(chain);
+
+        // Assert
+        var sent = proceeded();
+        assertNull(sent.header("Content-Encoding"));
+        assertEquals("{\"sku\":\"1\"}", read(sent.body()));
+    }
+
+    @Test
+    void testIntercept_ShouldGzipBody_WhenAtLeastMinSize() throws IOException {
+        // Arrange
+        var json = "{\"precos\":[{\"sku\":\"sku-1\",\"precoDe\":\"10\",\"precoPor\":\"9\"}]}";
+        var request = request(json);
+        when(chain.request()).thenReturn(request);
+
+        // Act
+        interceptor.intercept(chain);
+
+        // Assert
+        var sent = proceeded();
+        assertEquals("gzip", sent.header("Content-Encoding"));
+        assertEquals(request.body().contentType(), sent.body().contentType());
+
+        var compressed = new Buffer();
+        sent.body().writeTo(compressed);
+        assertEquals(json, Okio.buffer(new GzipSource(compressed)).readUtf8());
+    }
+
+    @Test
+    void testIntercept_ShouldNotCompressAgain_WhenContentEncodingIsAlreadySet() throws IOException {
+        // Arrange
+        var request = request("x".repeat(64)).newBuilder().header("Content-Encoding", "br").build();
+        when(chain.request()).thenReturn(request);
+
+        // Act
+        interceptor.intercept(chain);
+
+        // Assert
+        var sent = proceeded();
+        assertEquals("br", sent.header("Content-Encoding"));
+        assertEquals("x".repeat(64), read(sent.body()));
+    }
+
+    private Request proceeded() throws IOException {
+        var captor = ArgumentCaptor.forClass(Request.class);
+        verify(chain, times(1)).proceed(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Request request(String json) {
+        return new Request.Builder()
+                .url("http://localhost/products/price-batch")
+                .put(RequestBody.create(json, JSON))
+                .build();
+    }
+
+    private static String read(RequestBody body) throws IOException {
+        var buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readUtf8();
+    }
+}
@@ -0,0 +1,72 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leocalheiros.pocmiddleware.application.handlers.base.HandlerExecutors;
+import com.leocalheiros.pocmiddleware.application.handlers.base.HandlerRegistry;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSource;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSourceFactory;
+import com.leocalheiros.pocmiddleware.application.handlers.product.UpdateProductPriceExecutor;
+import com.leocalheiros.pocmiddleware.infra.services.hub.impl.UappiHubServiceImpl;
+import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
+import com.leocalheiros.pocmiddleware.domain.models.IntegrationSettings;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HandlerRegistryTest {
+
+    private final HandlerExecutors executors = new HandlerExecutors();
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown();
+    }
+
+    @Test
+    void testRegistry_ShouldCreateHandlersOnlyForTypesWithExecutor() {
+        // Arrange
+        var integrationSettings = new IntegrationSettings();
+        integrationSettings.setUpdateProductPrice(settings("price-queue", IntegrationType.PRODUCTPRICEUPDATE));
+        integrationSettings.setUpdateStock(settings("stock-queue", IntegrationType.STOCKUPDATE));
+
+        var messageSourceFactory = mock(MessageSourceFactory.class);
+        when(messageSourceFactory.create(any())).thenReturn(mock(MessageSource.class));
+
+        // Act
+        var registry = new HandlerRegistry(
+                integrationSettings,
+                List.of(new UpdateProductPriceExecutor(mock(UappiHubServiceImpl.class))),
+                messageSourceFactory,
+                mock(BaseMongoRepository.class),
+                new ObjectMapper(),
+                new IntegrationMetrics(new SimpleMeterRegistry()),
+                executors,
+                new UappiSettings()
+        );
+
+        // Assert
+        assertEquals(1, registry.getHandlers().size());
+        verify(messageSourceFactory, times(1)).create(any());
+    }
+
+    private static IntegrationParametersSettings settings(String queueName, IntegrationType type) {
+        var settings = new IntegrationParametersSettings();
+        settings.setQueueName(queueName);
+        settings.setType(type);
+        settings.setBatchLimit(100);
+        return settings;
+    }
+}
@@ -0,0 +1,180 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.domain.models.uappi.TokenResponse;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiHubSettings;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.services.hub.impl.HubTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HubTokenCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private HubTokenCache hubTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        var uappiSettings = new UappiSettings();
+        uappiSettings.setHub(new UappiHubSettings());
+        hubTokenCache = new HubTokenCache(redisTemplate, uappiSettings, new IntegrationMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hubTokenCache.shutdown();
+    }
+
+    @Test
+    void testGet_ShouldServeFromMemory_AfterFirstLoad() {
+        // Arrange
+        var loads = new AtomicInteger();
+
+        // Act
+        var first = hubTokenCache.get("123", () -> {
+            loads.incrementAndGet();
+            return new TokenResponse("abc", 3600);
+        });
+        var second = hubTokenCache.get("123", () -> {
+            loads.incrementAndGet();
+            return new TokenResponse("def", 3600);
+        });
+
+        // Assert
+        assertEquals("Bearer abc", first);
+        assertEquals("Bearer abc", second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_ShouldLoadAgain_WhenInvalidated() {
+        // Arrange
+        hubTokenCache.get("123", () -> new TokenResponse("abc", 3600));
+
+        // Act
+        hubTokenCache.invalidate("123", "Bearer abc");
+        var token = hubTokenCache.get("123", () -> new TokenResponse("def", 3600));
+
+        // Assert
+        assertEquals("Bearer def", token);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("token_hub_123")), eq("abc"));
+    }
+
+    @Test
+    void testInvalidate_ShouldKeepNewToken_WhenAnotherCallerAlreadyReplacedTheStaleOne() {
+        // Arrange
+        var loads = new AtomicInteger();
+        hubTokenCache.get("123", () -> new TokenResponse("abc", 3600));
+        hubTokenCache.invalidate("123", "Bearer abc");
+        hubTokenCache.get("123", () -> {
+            loads.incrementAndGet();
+            return new TokenResponse("def", 3600);
+        });
+
+        // Act
+        hubTokenCache.invalidate("123", "Bearer abc");
+        var token = hubTokenCache.get("123", () -> {
+            loads.incrementAndGet();
+            return new TokenResponse("ghi", 3600);
+        });
+
+        // Assert
+        assertEquals("Bearer def", token);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_ShouldLoadOnce_WhenManyCallersMissAtTheSameTime() throws InterruptedException {
+        // Arrange
+        var loads = new AtomicInteger();
+        var callers = 16;
+        var gate = new CountDownLatch(1);
+        var done = new CountDownLatch(callers);
+        List<String> tokens = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        for (int i = 0; i < callers; i++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    gate.await();
+                    tokens.add(hubTokenCache.get("123", () -> {
+                        loads.incrementAndGet();
+                        sleepQuietly(100);
+                        return new TokenResponse("abc", 3600);
+                    }));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        gate.countDown();
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(Collections.nCopies(callers, "Bearer abc"), tokens);
+    }
+
+    @Test
+    void testGet_ShouldServeCachedTokenAndRefreshInBackground_WhenInsideRefreshAhead() throws InterruptedException {
+        // Arrange
+        var refreshed = new CountDownLatch(1);
+        // Expires in less than the default 300 s refresh-ahead window, so the next lookup refreshes it
+        hubTokenCache.get("123", () -> new TokenResponse("abc", 200));
+
+        // Act
+        var served = hubTokenCache.get("123", () -> {
+            refreshed.countDown();
+            return new TokenResponse("def", 3600);
+        });
+
+        // Assert
+        assertEquals("Bearer abc", served);
+        assertTrue(refreshed.await(1, TimeUnit.SECONDS));
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        String current;
+        do {
+            current = hubTokenCache.get("123", () -> new TokenResponse("ghi", 3600));
+        } while (!current.equals("Bearer def") && System.nanoTime() < deadline);
+        assertEquals("Bearer def", current);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
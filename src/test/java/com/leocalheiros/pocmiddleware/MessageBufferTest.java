@@ -0,0 +1,52 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageBufferTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<List<Integer>> flushed = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testAdd_ShouldFlushOnCallerThread_WhenMaxSizeIsReached() {
+        // Arrange
+        var buffer = new MessageBuffer<Integer>(3, Duration.ofHours(1), scheduler, Runnable::run, flushed::add);
+
+        // Act
+        buffer.add(1);
+        buffer.add(2);
+        buffer.add(3);
+        buffer.add(4);
+
+        // Assert
+        assertEquals(List.of(List.of(1, 2, 3)), flushed);
+    }
+
+    @Test
+    void testAdd_ShouldFlushPartialBuffer_WhenLingerPasses() throws InterruptedException {
+        // Arrange
+        var buffer = new MessageBuffer<Integer>(100, Duration.ofMillis(50), scheduler, Runnable::run, flushed::add);
+
+        // Act
+        buffer.add(1);
+        buffer.add(2);
+        Thread.sleep(300);
+
+        // Assert
+        assertEquals(List.of(List.of(1, 2)), flushed);
+    }
+}
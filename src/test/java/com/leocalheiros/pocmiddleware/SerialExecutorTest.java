@@ -0,0 +1,113 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.application.handlers.base.SerialExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerialExecutorTest {
+
+    @Test
+    void testExecute_ShouldRunTasksOneAtATimeInSubmissionOrder() throws InterruptedException {
+        // Arrange
+        var delegate = Executors.newVirtualThreadPerTaskExecutor();
+        var serial = new SerialExecutor(delegate, 20);
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var done = new CountDownLatch(20);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            int task = i;
+            serial.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleepQuietly();
+                ran.add(task);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 20).boxed().toList(), ran);
+        assertEquals(1, maxRunning.get());
+        delegate.shutdown();
+    }
+
+    @Test
+    void testExecute_ShouldKeepRunning_WhenATaskFails() throws InterruptedException {
+        // Arrange
+        var delegate = Executors.newVirtualThreadPerTaskExecutor();
+        var serial = new SerialExecutor(delegate, 20);
+        var done = new CountDownLatch(1);
+
+        // Act
+        serial.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        serial.execute(done::countDown);
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        delegate.shutdown();
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testExecute_ShouldBlockSubmitter_WhenQueueIsFull() throws InterruptedException {
+        // Arrange
+        var delegate = Executors.newVirtualThreadPerTaskExecutor();
+        var serial = new SerialExecutor(delegate, 1);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var submitted = new CountDownLatch(1);
+        serial.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        serial.execute(() -> {
+        });
+
+        // Act
+        Thread.ofVirtual().start(() -> {
+            serial.execute(() -> {
+            });
+            submitted.countDown();
+        });
+
+        // Assert
+        assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(submitted.await(1, TimeUnit.SECONDS));
+        delegate.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.leocalheiros.pocmiddleware;
+
+import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
+import com.leocalheiros.pocmiddleware.application.dtos.responses.UpdateProductPriceResponse;
+import com.leocalheiros.pocmiddleware.config.BulkheadSettings;
+import com.leocalheiros.pocmiddleware.config.CircuitBreakerConfiguration;
+import com.leocalheiros.pocmiddleware.config.CircuitBreakerSettings;
+import com.leocalheiros.pocmiddleware.domain.models.AuthorizationToken;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.SellerKeys;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.SellerSettings;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.TokenResponse;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiHubSettings;
+import com.leocalheiros.pocmiddleware.domain.models.uappi.UappiSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
+import com.leocalheiros.pocmiddleware.infra.services.hub.UappiHubService;
+import com.leocalheiros.pocmiddleware.infra.services.hub.impl.HubTokenCache;
+import com.leocalheiros.pocmiddleware.infra.services.hub.impl.UappiHubServiceImpl;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UappiHubServiceImplTest {
+
+    @Mock
+    private UappiHubService uappiHubService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private UappiHubServiceImpl uappiHubServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        var keys = new SellerKeys();
+        keys.setApiKey("api-key");
+        keys.setSecretKey("secret-key");
+        var sellerSettings = new SellerSettings();
+        sellerSettings.setKeys(keys);
+        var hubSettings = new UappiHubSettings();
+        hubSettings.setSellers(Map.of("123", sellerSettings));
+        var uappiSettings = new UappiSettings();
+        uappiSettings.setHub(hubSettings);
+
+        var circuitBreakerSettings = new CircuitBreakerSettings();
+        circuitBreakerSettings.setSlidingWindowSize(3);
+        circuitBreakerSettings.setFailureRateThreshold(60);
+        circuitBreakerSettings.setWaitDurationInOpenState(60);
+        circuitBreakerSettings.setPermittedNumberOfCallsInHalfOpenState(3);
+        circuitBreakerSettings.setEvictAfterIdle(600);
+        var bulkheadSettings = new BulkheadSettings();
+        bulkheadSettings.setMaxConcurrentCalls(4);
+        bulkheadSettings.setMaxWaitDuration(1000);
+        var configuration = new CircuitBreakerConfiguration(circuitBreakerSettings, bulkheadSettings);
+
+        var metrics = new IntegrationMetrics(new SimpleMeterRegistry());
+        uappiHubServiceImpl = new UappiHubServiceImpl(configuration.circuitBreakerRegistry(),
+                configuration.bulkheadRegistry(), circuitBreakerSettings, uappiHubService,
+                new HubTokenCache(redisTemplate, uappiSettings, metrics), uappiSettings, metrics);
+    }
+
+    @Test
+    void testUpdateProductPrice_ShouldDropStaleTokenAndReplayOnce_WhenHubReturnsUnauthorized() {
+        // Arrange
+        var payload = new UpdateProductPriceResponse();
+        when(uappiHubService.getToken(any(AuthorizationToken.class)))
+                .thenReturn(new TokenResponse("stale", 3600), new TokenResponse("fresh", 3600));
+        when(uappiHubService.updateProductPrice("Bearer stale", payload)).thenThrow(unauthorized());
+        when(uappiHubService.updateProductPrice("Bearer fresh", payload)).thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        var response = uappiHubServiceImpl.updateProductPrice(payload, "123");
+
+        // Assert
+        assertEquals(1, response.getId());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("token_hub_123")), eq("stale"));
+        verify(uappiHubService, times(2)).getToken(any(AuthorizationToken.class));
+        verify(uappiHubService, times(1)).updateProductPrice("Bearer fresh", payload);
+    }
+
+    private static FeignException unauthorized() {
+        var request = Request.create(Request.HttpMethod.PUT, "/products/price-batch", Map.of(), null, StandardCharsets.UTF_8, null);
+        var response = Response.builder().status(401).reason("Unauthorized").request(request).headers(Map.of()).build();
+        return FeignException.errorStatus("updateProductPrice", response);
+    }
+}
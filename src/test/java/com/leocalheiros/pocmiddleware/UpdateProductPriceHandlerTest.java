@@ -1,30 +1,41 @@
 package com.leocalheiros.pocmiddleware;
 
-import com.azure.core.util.BinaryData;
-import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
-import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leocalheiros.pocmiddleware.application.dtos.requests.UpdateProductPriceRequest;
 import com.leocalheiros.pocmiddleware.application.dtos.responses.DefaultResponse;
 import com.leocalheiros.pocmiddleware.application.dtos.responses.UpdateProductPriceResponse;
-import com.leocalheiros.pocmiddleware.application.handlers.product.UpdateProductPriceHandler;
-import com.leocalheiros.pocmiddleware.domain.models.AzureServiceBusSettings;
+import com.leocalheiros.pocmiddleware.application.handlers.base.HandlerExecutors;
+import com.leocalheiros.pocmiddleware.application.handlers.base.InboundMessage;
+import com.leocalheiros.pocmiddleware.application.handlers.base.IntegrationHandler;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSource;
+import com.leocalheiros.pocmiddleware.application.handlers.base.MessageSourceFactory;
+import com.leocalheiros.pocmiddleware.application.handlers.base.SellerWeights;
+import com.leocalheiros.pocmiddleware.application.handlers.product.UpdateProductPriceExecutor;
 import com.leocalheiros.pocmiddleware.domain.models.Integration;
 import com.leocalheiros.pocmiddleware.domain.enums.IntegrationType;
+import com.leocalheiros.pocmiddleware.domain.enums.Status;
 import com.leocalheiros.pocmiddleware.domain.models.IntegrationParametersSettings;
-import com.leocalheiros.pocmiddleware.domain.models.IntegrationSettings;
+import com.leocalheiros.pocmiddleware.infra.metrics.IntegrationMetrics;
 import com.leocalheiros.pocmiddleware.infra.repository.BaseMongoRepository;
-import com.leocalheiros.pocmiddleware.infra.services.hub.UappiHubServiceImpl;
+import com.leocalheiros.pocmiddleware.infra.resilience.AdaptiveRateLimiter;
+import com.leocalheiros.pocmiddleware.infra.services.hub.impl.UappiHubServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 class UpdateProductPriceHandlerTest {
@@ -39,53 +50,100 @@ class UpdateProductPriceHandlerTest {
     private UappiHubServiceImpl uappiHubService;
 
     @Mock
-    private AzureServiceBusSettings azureServiceBusSettings;
-
-    @Mock
-    private IntegrationSettings integrationSettings;
+    private MessageSourceFactory messageSourceFactory;
 
     @Mock
     private IntegrationParametersSettings integrationParametersSettings;
 
 
-    private UpdateProductPriceHandler handler;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final IntegrationMetrics metrics = new IntegrationMetrics(meterRegistry);
+
+    private final HandlerExecutors executors = new HandlerExecutors();
+
+    private IntegrationHandler<UpdateProductPriceRequest> handler;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        when(azureServiceBusSettings.getConnectionString()).thenReturn("Endpoint=sb://example-connectionstring.servicebus.windows.net/;SharedAccessKeyName=RootManageSharedAccessKey;SharedAccessKey=example-key");
+        when(messageSourceFactory.create(any())).thenReturn(mock(MessageSource.class));
         when(integrationParametersSettings.getQueueName()).thenReturn("fake-queue-name");
         when(integrationParametersSettings.getBatchLimit()).thenReturn(100);
+        when(integrationParametersSettings.getMinBatchLimit()).thenReturn(10);
+        when(integrationParametersSettings.getMaxBatchBytes()).thenReturn(1000);
+        when(integrationParametersSettings.getTargetLatency()).thenReturn(5000);
+        when(integrationParametersSettings.getMaxBatchesPerTick()).thenReturn(50);
+        when(integrationParametersSettings.getMaxConcurrentBatches()).thenReturn(16);
+        when(integrationParametersSettings.getMaxConcurrentBatchesPerSeller()).thenReturn(1);
+        when(integrationParametersSettings.getMaxConcurrentCalls()).thenReturn(1);
+        when(integrationParametersSettings.getIngestBatchSize()).thenReturn(1);
+        when(integrationParametersSettings.getMaxAttempts()).thenReturn(3);
+        when(integrationParametersSettings.getRetryBaseDelay()).thenReturn(1000);
+        when(integrationParametersSettings.getRetryMaxDelay()).thenReturn(10000);
+        when(integrationParametersSettings.getDoneRetention()).thenReturn(Duration.ofDays(7));
+        when(integrationParametersSettings.getErrorRetention()).thenReturn(Duration.ofDays(30));
         when(integrationParametersSettings.getType()).thenReturn(IntegrationType.PRODUCTPRICEUPDATE);
-        when(integrationSettings.getUpdateProductPrice()).thenReturn(integrationParametersSettings);
+        when(uappiHubService.reserve(anyString())).thenReturn(new AdaptiveRateLimiter.Reservation(true, Duration.ZERO));
+
+        handler = createHandler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown();
+    }
 
-        handler = new UpdateProductPriceHandler(
-                azureServiceBusSettings,
+    private IntegrationHandler<UpdateProductPriceRequest> createHandler() {
+        return new IntegrationHandler<>(
+                messageSourceFactory,
+                integrationParametersSettings,
                 baseMongoRepository,
                 objectMapper,
-                uappiHubService,
-                integrationSettings
+                metrics,
+                executors,
+                SellerWeights.EQUAL,
+                new UpdateProductPriceExecutor(uappiHubService)
         );
     }
 
     @Test
-    void testMessageHandler_ShouldInsertIntegration_WhenMessageIsValid() throws JsonProcessingException {
+    void testMessageHandler_ShouldInsertIntegration_WhenMessageIsValid() throws IOException {
         // Arrange
         var messageBody = "{\"productId\":\"123\",\"price\":10.0}";
-        ServiceBusReceivedMessage message = mock(ServiceBusReceivedMessage.class);
-        ServiceBusReceivedMessageContext context = mock(ServiceBusReceivedMessageContext.class);
+        InboundMessage message = mock(InboundMessage.class);
 
-        when(context.getMessage()).thenReturn(message);
-        when(message.getBody()).thenReturn(BinaryData.fromString(messageBody));
+        when(message.getBody()).thenReturn(messageBody.getBytes());
         UpdateProductPriceRequest request = new UpdateProductPriceRequest();
-        when(objectMapper.readValue(anyString(), eq(UpdateProductPriceRequest.class))).thenReturn(request);
+        when(objectMapper.readValue(any(byte[].class), eq(UpdateProductPriceRequest.class))).thenReturn(request);
+
+        // Act
+        handler.messageHandler(message);
+
+        // Assert
+        verify(baseMongoRepository, times(1)).insertReceived(anyList());
+        verify(message, times(1)).complete();
+    }
+
+    @Test
+    void testMessageHandler_ShouldAbandon_WhenInsertFails() throws IOException {
+        // Arrange
+        InboundMessage message = mock(InboundMessage.class);
+
+        when(message.getMessageId()).thenReturn("message-1");
+        when(message.getBody()).thenReturn("{}".getBytes());
+        when(objectMapper.readValue(any(byte[].class), eq(UpdateProductPriceRequest.class)))
+                .thenReturn(new UpdateProductPriceRequest());
+        doThrow(new IllegalStateException("Mongo down")).when(baseMongoRepository).insertReceived(anyList());
 
         // Act
-        handler.messageHandler(context);
+        handler.messageHandler(message);
 
         // Assert
-        verify(baseMongoRepository, times(1)).save(any(Integration.class));
+        verify(baseMongoRepository, times(1)).insertReceived(argThat(x -> x.get(0).getMessageId().equals("message-1")));
+        verify(message, times(1)).abandon();
+        verify(message, never()).complete();
     }
 
     @Test
@@ -106,21 +164,375 @@ class UpdateProductPriceHandlerTest {
     }
 
     @Test
-    void testMessageHandler_ShouldLogError_WhenJsonProcessingExceptionOccurs() throws JsonProcessingException {
+    void testMessageHandler_ShouldDeadLetter_WhenJsonProcessingExceptionOccurs() throws IOException {
         // Arrange
         String messageBody = "{\"invalid_json\":\"}";
-        ServiceBusReceivedMessage message = mock(ServiceBusReceivedMessage.class);
-        ServiceBusReceivedMessageContext context = mock(ServiceBusReceivedMessageContext.class);
+        InboundMessage message = mock(InboundMessage.class);
 
-        when(context.getMessage()).thenReturn(message);
-        when(message.getBody()).thenReturn(BinaryData.fromString(messageBody));
-        when(objectMapper.readValue(anyString(), eq(UpdateProductPriceRequest.class)))
+        when(message.getBody()).thenReturn(messageBody.getBytes());
+        when(objectMapper.readValue(any(byte[].class), eq(UpdateProductPriceRequest.class)))
                 .thenThrow(new JsonProcessingException("JSON error") {});
 
         // Act
-        handler.messageHandler(context);
+        handler.messageHandler(message);
+
+        // Assert
+        verify(baseMongoRepository, never()).insertReceived(anyList());
+        verify(message, times(1)).deadLetter(anyString(), anyString());
+        verify(message, never()).complete();
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldDispatchOtherSellers_WhenOneSellerPayloadIsInvalid() throws JsonProcessingException {
+        // Arrange
+        Integration invalid = new Integration();
+        invalid.setDocumentNumber("111");
+        invalid.setObject("invalid");
+        Integration valid = new Integration();
+        valid.setDocumentNumber("222");
+        valid.setObject(new UpdateProductPriceRequest());
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("111", "222"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("111"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(invalid), List.of());
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("222"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(valid), List.of());
+        when(objectMapper.readValue("invalid", UpdateProductPriceRequest.class))
+                .thenThrow(new JsonProcessingException("JSON error") {});
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("222")))
+                .thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        verify(uappiHubService, never()).updateProductPrice(any(UpdateProductPriceResponse.class), eq("111"));
+        verify(uappiHubService, times(1)).updateProductPrice(any(UpdateProductPriceResponse.class), eq("222"));
+        assertEquals(Status.ERROR, invalid.getStatus());
+        assertEquals(invalid.getUpdatedAt().plusDays(30), invalid.getExpireAt());
+        assertEquals(Status.DONE, valid.getStatus());
+        assertEquals(valid.getUpdatedAt().plusDays(7), valid.getExpireAt());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldWriteBackEachBatch_AsSoonAsItIsSent() {
+        // Arrange
+        List<Integration> firstChunk = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Integration integration = new Integration();
+            integration.setObject(new UpdateProductPriceRequest("sku-" + i, "10", "9"));
+            firstChunk.add(integration);
+        }
+        Integration last = new Integration();
+        last.setObject(new UpdateProductPriceRequest("sku-100", "10", "9"));
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(firstChunk, List.of(last), List.of());
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        var owner = ArgumentCaptor.forClass(String.class);
+        verify(baseMongoRepository, times(2)).claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), owner.capture(), any(), eq(100));
+        verify(baseMongoRepository, times(1)).updateResults(firstChunk, owner.getValue());
+        verify(baseMongoRepository, times(1)).updateResults(List.of(last), owner.getValue());
+    }
+
+    @Test
+    void testMessageHandler_ShouldSendToHubWithoutPersisting_WhenDirectDispatchSucceeds() throws IOException {
+        // Arrange
+        when(integrationParametersSettings.isDirectDispatch()).thenReturn(true);
+        when(integrationParametersSettings.getBatchLimit()).thenReturn(1);
+        var directHandler = createHandler();
+        InboundMessage message = mock(InboundMessage.class);
+
+        when(message.getTo()).thenReturn("123");
+        when(message.getBody()).thenReturn("{}".getBytes());
+        when(objectMapper.readValue(any(byte[].class), eq(UpdateProductPriceRequest.class)))
+                .thenReturn(new UpdateProductPriceRequest());
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        directHandler.messageHandler(message);
+
+        // Assert
+        verify(message, timeout(1000).times(1)).complete();
+        verify(uappiHubService, times(1)).updateProductPrice(any(UpdateProductPriceResponse.class), eq("123"));
+        verify(baseMongoRepository, never()).insertReceived(anyList());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldSupersedePendingBacklogBeforeClaiming_WhenCoalesceIsEnabled() {
+        // Arrange
+        when(integrationParametersSettings.isCoalesce()).thenReturn(true);
+        var coalescingHandler = createHandler();
+        Integration newest = new Integration();
+        newest.setObject(new UpdateProductPriceRequest("sku-1", "10", "8"));
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.supersedePending(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), eq("sku"),
+                anyString(), any(), any())).thenReturn(1L);
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(newest));
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        coalescingHandler.onTimerComplete();
+
+        // Assert
+        var inOrder = inOrder(baseMongoRepository);
+        inOrder.verify(baseMongoRepository).supersedePending(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), eq("sku"),
+                anyString(), any(), any());
+        inOrder.verify(baseMongoRepository).claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100));
+        verify(uappiHubService, times(1)).updateProductPrice(
+                argThat(payload -> payload.getPrecos().size() == 1 && payload.getPrecos().get(0).getPrecoPor().equals("8")),
+                eq("123"));
+        assertEquals(Status.DONE, newest.getStatus());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldNotSupersede_WhenCoalesceIsDisabled() {
+        // Arrange
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(List.of());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        verify(baseMongoRepository, never()).supersedePending(any(), anyString(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldBackOffAndThenFail_WhenHubKeepsRejecting() {
+        // Arrange
+        Integration retried = new Integration();
+        retried.setObject(new UpdateProductPriceRequest());
+        Integration exhausted = new Integration();
+        exhausted.setObject(new UpdateProductPriceRequest());
+        exhausted.setAttemptCount(2);
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("111", "222"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("111"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(retried));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("222"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(exhausted));
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), anyString()))
+                .thenReturn(DefaultResponse.builder().id(-1).error("Service Unavailable").statusCode(503).build());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        assertEquals(Status.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttemptCount());
+        assertTrue(retried.getNextAttemptAt().isAfter(retried.getUpdatedAt()));
+        assertEquals(Status.ERROR, exhausted.getStatus());
+        assertEquals(3, exhausted.getAttemptCount());
+        assertEquals("Service Unavailable", exhausted.getError());
+        assertEquals(1, meterRegistry.counter("integration.retries", "type", "PRODUCTPRICEUPDATE", "reason", "backoff").count());
+        assertEquals(1, meterRegistry.timer("integration.lag", "type", "PRODUCTPRICEUPDATE", "status", "ERROR").count());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldWaitForRetryAfterWithoutCountingAttempt_WhenHubThrottles() {
+        // Arrange
+        Integration throttled = new Integration();
+        throttled.setObject(new UpdateProductPriceRequest());
+        throttled.setAttemptCount(2);
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("111"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("111"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(throttled));
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), anyString()))
+                .thenReturn(DefaultResponse.builder().id(-1).error("Too Many Requests").statusCode(429).retryAfter(60).build());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        assertEquals(Status.PENDING, throttled.getStatus());
+        assertEquals(2, throttled.getAttemptCount());
+        assertEquals(throttled.getUpdatedAt().plusSeconds(60), throttled.getNextAttemptAt());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldRefuseLocallyAndStopDraining_WhenSellerIsBlockedByRateLimit() {
+        // Arrange
+        List<Integration> firstChunk = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Integration integration = new Integration();
+            integration.setObject(new UpdateProductPriceRequest("sku-" + i, "10", "9"));
+            firstChunk.add(integration);
+        }
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(firstChunk);
+        when(uappiHubService.reserve("123")).thenReturn(new AdaptiveRateLimiter.Reservation(false, Duration.ofSeconds(3)));
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        verify(uappiHubService, never()).updateProductPrice(any(UpdateProductPriceResponse.class), anyString());
+        verify(baseMongoRepository, times(1)).claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100));
+        var row = firstChunk.get(0);
+        assertEquals(Status.PENDING, row.getStatus());
+        assertEquals(0, row.getAttemptCount());
+        assertEquals(row.getUpdatedAt().plusSeconds(3), row.getNextAttemptAt());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldKeepBatchSize_WhenOnlyPacingIsSlow() {
+        // Arrange
+        when(integrationParametersSettings.getTargetLatency()).thenReturn(50);
+        var pacedHandler = createHandler();
+        List<Integration> chunk = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Integration integration = new Integration();
+            integration.setObject(new UpdateProductPriceRequest("sku-" + i, "10", "9"));
+            chunk.add(integration);
+        }
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), anyInt()))
+                .thenReturn(chunk, List.of());
+        when(uappiHubService.reserve("123")).thenReturn(new AdaptiveRateLimiter.Reservation(true, Duration.ofMillis(100)));
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        pacedHandler.onTimerComplete();
+
+        // Assert
+        verify(baseMongoRepository, times(2)).claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100));
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldNotCountAttempt_WhenCircuitIsOpen() {
+        // Arrange
+        Integration refused = new Integration();
+        refused.setObject(new UpdateProductPriceRequest());
+        refused.setAttemptCount(9);
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("111"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("111"), anyString(), any(), eq(100)))
+                .thenReturn(List.of(refused));
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), anyString()))
+                .thenReturn(DefaultResponse.builder().id(-1).error("CircuitBreaker '111:price-batch' is OPEN")
+                        .statusCode(503).rejectedLocally(true).retryAfter(60).build());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        assertEquals(Status.PENDING, refused.getStatus());
+        assertEquals(9, refused.getAttemptCount());
+        assertEquals(refused.getUpdatedAt().plusSeconds(60), refused.getNextAttemptAt());
+        assertEquals(1, meterRegistry.counter("integration.retries", "type", "PRODUCTPRICEUPDATE", "reason", "rejected").count());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldIsolateRejectedItem_WhenHubRejectsBatch() {
+        // Arrange
+        List<Integration> integrations = new ArrayList<>();
+        for (String sku : List.of("sku-1", "sku-2", "bad", "sku-4")) {
+            Integration integration = new Integration();
+            integration.setObject(new UpdateProductPriceRequest(sku, "10", "9"));
+            integrations.add(integration);
+        }
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(integrations);
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenAnswer(invocation -> {
+                    UpdateProductPriceResponse payload = invocation.getArgument(0);
+                    boolean rejected = payload.getPrecos().stream().anyMatch(x -> x.getSku().equals("bad"));
+                    return rejected
+                            ? DefaultResponse.builder().id(-1).error("Invalid sku").statusCode(400).build()
+                            : DefaultResponse.builder().id(1).build();
+                });
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        verify(uappiHubService, times(5)).updateProductPrice(any(UpdateProductPriceResponse.class), eq("123"));
+        assertEquals(Status.ERROR, integrations.get(2).getStatus());
+        assertEquals("Invalid sku", integrations.get(2).getError());
+        assertEquals(Status.DONE, integrations.get(0).getStatus());
+        assertEquals(Status.DONE, integrations.get(1).getStatus());
+        assertEquals(Status.DONE, integrations.get(3).getStatus());
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldRescheduleWithoutBisecting_WhenHubForbidsSeller() {
+        // Arrange
+        List<Integration> integrations = new ArrayList<>();
+        for (String sku : List.of("sku-1", "sku-2", "sku-3", "sku-4")) {
+            Integration integration = new Integration();
+            integration.setObject(new UpdateProductPriceRequest(sku, "10", "9"));
+            integrations.add(integration);
+        }
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(integrations);
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenReturn(DefaultResponse.builder().id(-1).error("Forbidden").statusCode(403).build());
+
+        // Act
+        handler.onTimerComplete();
+
+        // Assert
+        verify(uappiHubService, times(1)).updateProductPrice(any(UpdateProductPriceResponse.class), eq("123"));
+        assertTrue(integrations.stream().allMatch(x -> x.getStatus() == Status.PENDING && x.getAttemptCount() == 1));
+    }
+
+    @Test
+    void testOnTimerComplete_ShouldSplitBatch_WhenPayloadBytesExceedLimit() {
+        // Arrange
+        List<Integration> integrations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Integration integration = new Integration();
+            integration.setObject(new UpdateProductPriceRequest("sku-" + i, "10", "9"));
+            integration.setPayloadSize(400);
+            integrations.add(integration);
+        }
+
+        when(baseMongoRepository.findClaimableDocumentNumbers(IntegrationType.PRODUCTPRICEUPDATE))
+                .thenReturn(List.of("123"));
+        when(baseMongoRepository.claimBatch(eq(IntegrationType.PRODUCTPRICEUPDATE), eq("123"), anyString(), any(), eq(100)))
+                .thenReturn(integrations);
+        when(uappiHubService.updateProductPrice(any(UpdateProductPriceResponse.class), eq("123")))
+                .thenReturn(DefaultResponse.builder().id(1).build());
+
+        // Act
+        handler.onTimerComplete();
 
         // Assert
-        verify(baseMongoRepository, never()).save(any(Integration.class));
+        verify(uappiHubService, times(1)).updateProductPrice(argThat(payload -> payload.getPrecos().size() == 2), eq("123"));
+        verify(uappiHubService, times(1)).updateProductPrice(argThat(payload -> payload.getPrecos().size() == 1), eq("123"));
+        assertTrue(integrations.stream().allMatch(x -> x.getStatus() == Status.DONE));
     }
-}
\ No newline at end of file
+}